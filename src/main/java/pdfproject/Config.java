@@ -1,6 +1,8 @@
 package pdfproject;
 
+import org.apache.pdfbox.rendering.ImageType;
 import pdfproject.constants.AppPaths;
+import pdfproject.constants.DiffAlgorithm;
 import pdfproject.utils.AppSettings;
 
 public final class Config {
@@ -11,6 +13,67 @@ public final class Config {
 
     public static String inputPath = "";
     public static int renderDpi = 100;
+
+    // Render at this DPI first and at renderDpi only for pages that differ; 0 always renders at renderDpi
+    public static int triageDpi = Math.max(0, AppSettings.loadInt("triageDpi", 0));
+
+    // Colour depth pages are rendered and diffed in; GRAY or BINARY take a quarter or less of the memory of RGB
+    public static ImageType compareImageType = AppSettings.loadEnum("compareImageType", ImageType.RGB);
+
+    // Render pages again in colour for the report when comparing in GRAY or BINARY
+    public static boolean colorDisplay = AppSettings.loadBoolean("colorDisplay", false);
+
     public static boolean isProdigyValidation;
     public static String outputImagePath = AppSettings.loadOutputPath(AppPaths.HOME_DIR + "\\" + FRAME_NAME + "\\Reports");
+
+    // Pages of one row validated concurrently; 1 keeps the original sequential loop
+    public static int pageWorkers = Math.max(1, AppSettings.loadInt("pageWorkers", 1));
+
+    // Rows of a batch validated concurrently
+    public static int itemWorkers = Math.max(1, AppSettings.loadInt("itemWorkers", 1));
+
+    // Threads busy on rows and pages together, across the whole run
+    public static int maxWorkers = Math.max(1, AppSettings.loadInt("maxWorkers", Runtime.getRuntime().availableProcessors()));
+
+    // Start rows with the smallest input files first so the first results show up early
+    public static boolean shortestJobFirst = AppSettings.loadBoolean("shortestJobFirst", false);
+
+    // Word diff engine; LCS is the original table, MYERS/LINEAR scale to long pages
+    public static DiffAlgorithm diffAlgorithm = AppSettings.loadEnum("diffAlgorithm", DiffAlgorithm.LCS);
+
+    // Match whole lines first and word-diff only the changed line blocks
+    public static boolean lineDiff = AppSettings.loadBoolean("lineDiff", false);
+
+    // Skip rendering pages whose text, glyph positions, content streams and resources match; they get a placeholder row
+    public static boolean textFirst = AppSettings.loadBoolean("textFirst", false);
+
+    // Fingerprint every page up front and skip pairs that match object for object
+    public static boolean fingerprintPages = AppSettings.loadBoolean("fingerprintPages", false);
+
+    // Compare the input files byte for byte first and report identical ones without opening them
+    public static boolean skipIdenticalFiles = AppSettings.loadBoolean("skipIdenticalFiles", false);
+
+    // PDFs above this size keep decoded streams in temp files and cache no images; 0 turns it off
+    public static int largeDocumentMb = Math.max(0, AppSettings.loadInt("largeDocumentMb", 512));
+
+    // Threads encoding PNGs in the background; 0 writes them on the validating thread
+    public static int imageWriters = Math.max(0, AppSettings.loadInt("imageWriters", 0));
+
+    // Images queued or encoding at once before validation waits for the writers
+    public static int imageWriteQueue = Math.max(1, AppSettings.loadInt("imageWriteQueue", 8));
+
+    // Idle page images kept for reuse per size; 0 allocates every image afresh
+    public static int imagePoolSize = Math.max(0, AppSettings.loadInt("imagePoolSize", 0));
+
+    // Let the report lay the page images side by side and draw the word boxes instead of saving a combined image
+    public static boolean composeReport = AppSettings.loadBoolean("composeReport", false);
+
+    // Size limit of the converted-PDF cache under the app home; 0 converts every time
+    public static int conversionCacheMb = Math.max(0, AppSettings.loadInt("conversionCacheMb", 1024));
+
+    // Long-lived headless LibreOffice instances for Word conversion; 0 starts one per document
+    public static int officeWorkers = Math.max(0, AppSettings.loadInt("officeWorkers", 0));
+
+    // Word documents converted ahead of the rows that need them; 0 converts on demand
+    public static int prefetchDepth = Math.max(0, AppSettings.loadInt("prefetchDepth", 0));
 }
@@ -1,7 +1,7 @@
 package pdfproject;
 
 import pdfproject.constants.FileTypes;
-import pdfproject.core.PDFProcessor;
+import pdfproject.core.ItemScheduler;
 import pdfproject.interfaces.StopListener;
 import pdfproject.models.InputData;
 import pdfproject.models.MapModel;
@@ -9,8 +9,8 @@ import pdfproject.utils.DataMapGenerator;
 import pdfproject.utils.InputDataProvider;
 import pdfproject.utils.JsonDataProvider;
 import pdfproject.utils.ProcessUtils;
+import pdfproject.utils.converter.ConversionCache;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class Launcher {
@@ -34,29 +34,19 @@ public class Launcher {
         }
 
         System.out.println("✅ Loaded " + inputs.size() + " input rows.");
+        ConversionCache.resetStats();
+        ConversionCache.trim(); // no row of this run holds a cached PDF yet
         String outputPath = Config.outputImagePath + "\\Result - " + System.currentTimeMillis();
-        List<MapModel> resultList = new ArrayList<>();
-
-        for (int i = 0; i < inputs.size(); i++) {
-            if (stopListener.stoppedByUser()){
-                return;
-            }
-            InputData data = inputs.get(i);
-            MapModel result = new MapModel(outputPath);
-            result.setKey(data.getKey());
-
-            try {
-                PDFProcessor.processRow(stopListener,data, i, result, outputPath);
-            } catch (Exception e) {
-                System.err.printf("Error in item %d: %s%n", i + 1, e.getMessage());
-                e.printStackTrace();
-            } finally {
-                resultList.add(result);
-            }
+        List<MapModel> resultList;
+        try {
+            resultList = ItemScheduler.run(stopListener, inputs, outputPath);
+        } catch (InterruptedException e) {
+            return;
         }
         if (stopListener.stoppedByUser()){
             return;
         }
+        ConversionCache.printStats();
         DataMapGenerator.generateDataMapJs(resultList, outputPath);
     }
 
@@ -0,0 +1,10 @@
+package pdfproject.constants;
+
+/**
+ * Word diff engines selectable through {@code diffAlgorithm} in the app settings.
+ */
+public enum DiffAlgorithm {
+    LCS,     // full dynamic-programming table, O(m·n) time and memory
+    MYERS,   // O((m+n)·D) greedy; switches to LINEAR when D gets large
+    LINEAR   // Myers middle-snake divide and conquer, linear memory
+}
@@ -0,0 +1,29 @@
+package pdfproject.constants;
+
+/**
+ * Style of a font as shown in the report.
+ */
+public enum FontStyle {
+    REGULAR("regular"),
+    BOLD("bold"),
+    ITALIC("italic"),
+    BOLD_ITALIC("bold|italic");
+
+    private final String label;
+
+    FontStyle(String label) {
+        this.label = label;
+    }
+
+    public static FontStyle of(boolean bold, boolean italic) {
+        if (bold && italic) return BOLD_ITALIC;
+        if (bold) return BOLD;
+        if (italic) return ITALIC;
+        return REGULAR;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
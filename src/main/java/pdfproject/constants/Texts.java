@@ -2,6 +2,11 @@ package pdfproject.constants;
 
 public class Texts {
     public static final String PAGE_NOT_FOUND = "Page Not Found";
+    public static final String PAGE_NOT_FOUND_IMAGE_NAME = "page_not_found_image";
     public static final String NO_DIFF_FOUND = "NO DIFFERENCE";
     public static final String NO_DIFF_IMAGE_NAME = "no_diff_image";
+    public static final String IDENTICAL_PAGE = "IDENTICAL PAGE";
+    public static final String IDENTICAL_PAGE_IMAGE_NAME = "identical_page_image";
+    public static final String IDENTICAL_DOCUMENTS = "IDENTICAL DOCUMENTS";
+    public static final String IDENTICAL_DOCUMENTS_IMAGE_NAME = "identical_documents_image";
 }
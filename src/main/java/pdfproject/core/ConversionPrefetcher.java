@@ -0,0 +1,171 @@
+package pdfproject.core;
+
+import pdfproject.Config;
+import pdfproject.constants.FileTypes;
+import pdfproject.interfaces.StopListener;
+import pdfproject.models.InputData;
+import pdfproject.utils.converter.WordToPdfConverter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts the Word documents of a batch ahead of the rows that need them, in schedule
+ * order, so that conversion overlaps with the compare of earlier rows. At most
+ * {@link Config#prefetchDepth} converted documents wait for their row at a time.
+ * <p>
+ * A row asking for a document the prefetcher has not reached yet converts it itself,
+ * and the prefetcher then skips it. Rows release the documents they did not take, also
+ * when they fail, so the window never fills up with documents nobody will ask for.
+ */
+public final class ConversionPrefetcher {
+
+    // Placeholder of a document claimed by its row before the prefetcher got to it
+    private static final Future<File> CLAIMED = CompletableFuture.completedFuture(null);
+
+    // How often the feeder, waiting for room in the window, looks at Stop
+    private static final long STOP_POLL_MILLIS = 200;
+
+    private static volatile ConversionPrefetcher current;
+
+    private final StopListener stopListener;
+    private final List<String> paths;
+    private final Semaphore window = new Semaphore(Config.prefetchDepth);
+    private final Map<String, Future<File>> conversions = new ConcurrentHashMap<>();
+    private final Set<String> taken = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+    private final Thread feeder;
+
+    private ConversionPrefetcher(StopListener stopListener, List<String> paths) {
+        this.stopListener = stopListener;
+        this.paths = paths;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, Config.officeWorkers), r -> {
+            Thread t = new Thread(r, "conversion-prefetch");
+            t.setDaemon(true);
+            return t;
+        });
+        this.feeder = new Thread(this::feed, "conversion-feeder");
+        this.feeder.setDaemon(true);
+    }
+
+    /**
+     * Starts prefetching the Word inputs of the rows, taken in the given order.
+     * Does nothing when prefetching is off or the batch holds no Word file.
+     */
+    public static void start(StopListener stopListener, List<InputData> inputs, List<Integer> order) {
+        if (Config.prefetchDepth <= 0) {
+            return;
+        }
+
+        Set<String> paths = new LinkedHashSet<>();
+        for (int index : order) {
+            InputData data = inputs.get(index);
+            if (!isPdf(data.getPath1())) paths.add(data.getPath1());
+            if (!isPdf(data.getPath2())) paths.add(data.getPath2());
+        }
+        if (paths.isEmpty()) {
+            return;
+        }
+
+        ConversionPrefetcher prefetcher = new ConversionPrefetcher(stopListener, new ArrayList<>(paths));
+        current = prefetcher;
+        prefetcher.feeder.start();
+    }
+
+    /**
+     * Returns the prefetched PDF of the Word file, waiting for its conversion if it is
+     * still running.
+     *
+     * @return null if the file was not prefetched and the caller has to convert it
+     * @throws Exception the failure of the prefetched conversion
+     */
+    public static File take(String wordPath) throws Exception {
+        ConversionPrefetcher prefetcher = current;
+        if (prefetcher == null) {
+            return null;
+        }
+
+        Future<File> conversion = prefetcher.conversions.putIfAbsent(wordPath, CLAIMED);
+        if (conversion == null || conversion == CLAIMED) {
+            return null;
+        }
+
+        if (prefetcher.taken.add(wordPath)) {
+            prefetcher.window.release(); // room for the next document
+        }
+        try {
+            return conversion.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Tells the prefetcher that a row will not ask for the document after all, so it is
+     * not converted, or no longer holds a place in the window if it already was.
+     */
+    public static void skip(String wordPath) {
+        ConversionPrefetcher prefetcher = current;
+        if (prefetcher == null) {
+            return;
+        }
+
+        Future<File> conversion = prefetcher.conversions.putIfAbsent(wordPath, CLAIMED);
+        if (conversion != null && conversion != CLAIMED && prefetcher.taken.add(wordPath)) {
+            prefetcher.window.release();
+        }
+    }
+
+    /**
+     * Cancels the running prefetch, if any. Called at the end of a run and on Stop.
+     */
+    public static void stop() {
+        ConversionPrefetcher prefetcher = current;
+        current = null;
+        if (prefetcher != null) {
+            prefetcher.feeder.interrupt();
+            prefetcher.executor.shutdownNow();
+        }
+    }
+
+    private void feed() {
+        try {
+            for (String path : paths) {
+                while (!window.tryAcquire(STOP_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (stopListener.stoppedByUser()) {
+                        return;
+                    }
+                }
+                if (stopListener.stoppedByUser()) {
+                    return;
+                }
+
+                FutureTask<File> conversion = new FutureTask<>(() -> WordToPdfConverter.convertToPdf(path));
+                if (conversions.putIfAbsent(path, conversion) == null) {
+                    executor.execute(conversion);
+                } else {
+                    window.release(); // its row got there first
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        }
+    }
+
+    private static boolean isPdf(String path) {
+        return path != null && path.toLowerCase().endsWith(FileTypes.PDF_EXTENSION);
+    }
+}
@@ -0,0 +1,103 @@
+package pdfproject.core;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import pdfproject.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opens independent {@link PDDocument}s over the bytes of one PDF, one per thread,
+ * since PDFBox documents are not thread-safe. The file is mapped read-only once and
+ * every document reads its own view of the mapping, so N workers do not hold N copies
+ * of the file. Files too large for a single mapping are read from disk through a small
+ * page cache instead.
+ * <p>
+ * On Windows every document reads the file through its own page cache as well: a mapping
+ * stays until the GC collects it, and while it lives Windows refuses to delete or rewrite
+ * the file, which the conversion cache and the converters do.
+ * <p>
+ * Files above {@link Config#largeDocumentMb} are opened in large-document mode: streams
+ * decoded while parsing go to a temp-file scratch store rather than the heap, and images
+ * are not kept in the resource cache once their page is drawn. Fonts are still cached,
+ * as they are small and shared by many pages.
+ * <p>
+ * Documents are owned and closed by the caller; the mapping goes away with the pool.
+ */
+public class DocumentPool {
+
+    private final File file;
+    private final ByteBuffer mapped;
+    private final boolean large;
+
+    public DocumentPool(File file) throws IOException {
+        this.file = file;
+        this.mapped = map(file);
+        this.large = Config.largeDocumentMb > 0 && file.length() > Config.largeDocumentMb * 1024L * 1024L;
+
+        if (large) {
+            System.out.printf(
+                    "🗄️  %s: %d MB, opened in large-document mode.%n",
+                    file.getName(), file.length() / (1024 * 1024)
+            );
+        }
+    }
+
+    /**
+     * Opens a new document over the shared bytes. Safe to call from any thread.
+     */
+    public PDDocument open() throws IOException {
+        // duplicate() gives this document its own position over the same memory
+        RandomAccessRead source = mapped != null
+                ? new RandomAccessReadBuffer(mapped.duplicate())
+                : new RandomAccessReadBufferedFile(file);
+
+        if (!large) {
+            return Loader.loadPDF(source);
+        }
+
+        PDDocument document = Loader.loadPDF(source, IOUtils.createTempFileOnlyStreamCache());
+        document.setResourceCache(new NoXObjectResourceCache());
+        return document;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        if (System.getProperty("os.name").toLowerCase().contains("win")) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Resource cache that drops images and forms, so the decoded pictures of a scanned
+     * page are garbage as soon as the page is done instead of lingering as soft references.
+     */
+    private static final class NoXObjectResourceCache extends DefaultResourceCache {
+        @Override
+        public void put(COSObject indirect, PDXObject xobject) {
+            // not cached
+        }
+    }
+}
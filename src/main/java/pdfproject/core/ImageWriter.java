@@ -0,0 +1,83 @@
+package pdfproject.core;
+
+import pdfproject.Config;
+import pdfproject.constants.FileTypes;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Process-wide PNG encoding stage. With {@link Config#imageWriters} above zero, images are
+ * encoded on their own threads while validation carries on with the next page; at most
+ * {@link Config#imageWriteQueue} images wait or encode at once, and callers block beyond that.
+ * With zero writers every image is written on the calling thread, as before, and a failed
+ * write is thrown to the caller right away.
+ * <p>
+ * An image handed over here must not be changed afterwards.
+ */
+public final class ImageWriter {
+
+    private static final ExecutorService EXECUTOR = Config.imageWriters > 0
+            ? Executors.newFixedThreadPool(Config.imageWriters, r -> {
+                Thread t = new Thread(r, "image-writer");
+                t.setDaemon(true);
+                return t;
+            })
+            : null;
+
+    private static final Semaphore PENDING = new Semaphore(Math.max(1, Config.imageWriteQueue));
+
+    private ImageWriter() {}
+
+    /**
+     * Writes the image as PNG to the given file.
+     *
+     * @return completes once the file is written, or with the encoding failure of a background write
+     * @throws InterruptedIOException if interrupted while waiting for room in the queue
+     * @throws IOException            if the image could not be written without background writers
+     */
+    public static CompletableFuture<Void> write(BufferedImage image, File file) throws IOException {
+        if (EXECUTOR == null) {
+            encode(image, file);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        try {
+            PENDING.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queueing " + file.getName());
+        }
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            EXECUTOR.execute(() -> {
+                try {
+                    encode(image, file);
+                    done.complete(null);
+                } catch (Throwable e) {
+                    done.completeExceptionally(e);
+                } finally {
+                    PENDING.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            PENDING.release();
+            done.completeExceptionally(e);
+        }
+        return done;
+    }
+
+    private static void encode(BufferedImage image, File file) throws IOException {
+        if (!ImageIO.write(image, FileTypes.IMAGE_TYPE, file)) {
+            throw new IOException("No PNG writer for " + file.getName());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package pdfproject.core;
+
+import pdfproject.Config;
+import pdfproject.constants.FileTypes;
+import pdfproject.interfaces.StopListener;
+import pdfproject.models.InputData;
+import pdfproject.models.MapModel;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the rows of a batch through {@link PDFProcessor#processRow} with up to
+ * {@link Config#itemWorkers} rows in flight. Every row holds one {@link WorkBudget}
+ * permit while it runs, so rows and their page workers share one thread budget.
+ */
+public final class ItemScheduler {
+
+    private ItemScheduler() {}
+
+    /**
+     * Processes all rows and returns one result per row, in input order.
+     *
+     * @throws InterruptedException if the launching thread is interrupted (Stop pressed)
+     */
+    public static List<MapModel> run(StopListener stopListener, List<InputData> inputs, String outputPath)
+            throws InterruptedException {
+
+        List<MapModel> results = new ArrayList<>(inputs.size());
+        for (InputData data : inputs) {
+            MapModel result = new MapModel(outputPath);
+            result.setKey(data.getKey());
+            results.add(result);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Config.itemWorkers), r -> {
+            Thread t = new Thread(r, "item-worker");
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<Integer> order = scheduleOrder(inputs);
+        ConversionPrefetcher.start(stopListener, inputs, order);
+
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int index : order) {
+                futures.add(executor.submit(() ->
+                        processItem(stopListener, inputs.get(index), index, results.get(index), outputPath)));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // processItem reports its own failures; nothing else can escape
+                    e.getCause().printStackTrace();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            ConversionPrefetcher.stop();
+        }
+
+        return results;
+    }
+
+    private static void processItem(StopListener stopListener, InputData data, int index,
+                                    MapModel result, String outputPath) {
+        if (stopListener.stoppedByUser()) {
+            return;
+        }
+
+        try {
+            WorkBudget.acquire();
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        try {
+            PDFProcessor.processRow(stopListener, data, index, result, outputPath);
+        } catch (Exception e) {
+            System.err.printf("Error in item %d: %s%n", index + 1, e.getMessage());
+            e.printStackTrace();
+        } finally {
+            WorkBudget.release();
+        }
+    }
+
+    /**
+     * Input order, or smallest estimated cost first when {@link Config#shortestJobFirst} is set.
+     * The sort is stable, so rows of equal cost keep their input order.
+     */
+    private static List<Integer> scheduleOrder(List<InputData> inputs) {
+        List<Integer> order = new ArrayList<>(inputs.size());
+        List<Long> costs = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            order.add(i);
+            costs.add(Config.shortestJobFirst ? estimateCost(inputs.get(i)) : 0L);
+        }
+
+        if (Config.shortestJobFirst) {
+            order.sort(Comparator.comparingLong(costs::get));
+        }
+        return order;
+    }
+
+    /**
+     * Combined size of both input files, which tracks the page count closely enough to order
+     * rows, without opening any document before the first row starts. Page ranges are not
+     * taken into account. Word rows also need a conversion, so they are scheduled after
+     * every PDF row.
+     */
+    private static long estimateCost(InputData data) {
+        if (!isPdf(data.getPath1()) || !isPdf(data.getPath2())) {
+            return Long.MAX_VALUE;
+        }
+        // A missing file reads as 0 and its row fails fast at the front of the run
+        return new File(data.getPath1()).length() + new File(data.getPath2()).length();
+    }
+
+    private static boolean isPdf(String path) {
+        return path != null && path.toLowerCase().endsWith(FileTypes.PDF_EXTENSION);
+    }
+}
@@ -1,22 +1,33 @@
 package pdfproject.core;
 
-import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import pdfproject.Config;
 import pdfproject.constants.FileTypes;
 import pdfproject.interfaces.StopListener;
+import pdfproject.models.FontTable;
 import pdfproject.models.InputData;
 import pdfproject.models.MapModel;
+import pdfproject.models.WordInfo;
 import pdfproject.parsers.RangeParser;
 import pdfproject.services.DBService;
+import pdfproject.utils.FileIdentityUtil;
+import pdfproject.utils.ImageUtils;
 import pdfproject.utils.converter.WordToPdfConverter;
 import pdfproject.validators.AlignmentValidator;
 import pdfproject.validators.ContentValidator;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PDFProcessor {
 
@@ -30,13 +41,25 @@ public class PDFProcessor {
 
         System.out.printf("▶️  Processing Item %d...%n", itemIndex + 1);
 
-        File pdf1 = ensurePdf(data.getPath1());
-        File pdf2 = ensurePdf(data.getPath2());
+        if (Config.skipIdenticalFiles && reportIdenticalFiles(data, itemIndex, resultMap, outputPath)) {
+            return;
+        }
+
+        File pdf1;
+        File pdf2;
+        try {
+            pdf1 = ensurePdf(data.getPath1());
+            pdf2 = ensurePdf(data.getPath2());
+        } finally {
+            // A row failing before it took both documents must not keep their window places
+            skipPrefetch(data);
+        }
 
-        boolean isTotalSuccess = true; // 👈 NEW FLAG
+        DocumentPool pool1 = new DocumentPool(pdf1);
+        DocumentPool pool2 = new DocumentPool(pdf2);
 
-        try (PDDocument doc1 = Loader.loadPDF(pdf1);
-             PDDocument doc2 = Loader.loadPDF(pdf2)) {
+        try (PDDocument doc1 = pool1.open();
+             PDDocument doc2 = pool2.open()) {
 
             int total1 = doc1.getNumberOfPages();
             int total2 = doc2.getNumberOfPages();
@@ -61,79 +84,355 @@ public class PDFProcessor {
                     itemIndex + 1, maxSize
             );
 
-            PDFRenderer renderer1 = new PDFRenderer(doc1);
-            PDFRenderer renderer2 = new PDFRenderer(doc2);
+            boolean[] identical = new boolean[maxSize];
+            if (Config.fingerprintPages) {
+                identical = PageFingerprint.matches(
+                        PageFingerprint.of(pdf1, doc1), range1, PageFingerprint.of(pdf2, doc2), range2
+                );
+                System.out.printf(
+                        "🟰 Item %d: %d of %d page(s) identical by fingerprint.%n",
+                        itemIndex + 1, countTrue(identical), maxSize
+                );
+            }
 
-            AlignmentValidator alignmentValidator = new AlignmentValidator(
-                    outputPath, itemIndex, renderer1, renderer2, resultMap
+            // Built here, before any page worker starts, and shared by all of them
+            FontTable fonts = new FontTable();
+            PageTextIndex text1 = PageTextIndex.build(
+                    doc1, pool1, pagesToCompare(range1, identical), data.isSingleColumn(), fonts, Config.pageWorkers,
+                    stopListener
+            );
+            PageTextIndex text2 = PageTextIndex.build(
+                    doc2, pool2, pagesToCompare(range2, identical), data.isSingleColumn(), fonts, Config.pageWorkers,
+                    stopListener
             );
-            ContentValidator contentValidator = new ContentValidator(
-                    data, outputPath, itemIndex, doc1, doc2, resultMap
+
+            RowJob job = new RowJob(
+                    stopListener, data, itemIndex, resultMap, outputPath, range1, range2, identical,
+                    text1, text2, new AtomicInteger(), new AtomicBoolean(true), new PageWrites()
+            );
+
+            int workers = Math.min(Config.pageWorkers, maxSize);
+            if (workers > 1) {
+                validatePagesInParallel(job, pool1, pool2, doc1, doc2, workers);
+            } else {
+                validatePages(job, doc1, doc2, false);
+            }
+
+            awaitWrites(job);
+
+            if (job.stopped()) {
+                return;
+            }
+
+            System.out.printf(
+                    "✔️  Item %d: Validation for all pages completed.%n",
+                    itemIndex + 1
             );
 
-            for (int i = 0; i < maxSize; i++) {
-                if (stopListener != null && stopListener.stoppedByUser()) {
-                    return;
+            saveActivity(data, job.isTotalSuccess().get());
+        }
+    }
+
+    /**
+     * Gives the row a single "identical documents" result when both input files are the
+     * same document, before anything is converted or loaded.
+     *
+     * @return true if the row is done
+     */
+    private static boolean reportIdenticalFiles(InputData data, int itemIndex, MapModel resultMap,
+                                                String outputPath) throws Exception {
+        FileIdentityUtil.Identity identity;
+        try {
+            identity = FileIdentityUtil.compare(data.getPath1(), data.getPath2());
+        } catch (IOException e) {
+            // Missing or unreadable input: let the normal path report it
+            return false;
+        }
+        if (identity == FileIdentityUtil.Identity.DIFFERENT) {
+            return false;
+        }
+
+        skipPrefetch(data);
+
+        String identical = ImageUtils.getIdenticalDocumentsImage(outputPath);
+        String noDiff = ImageUtils.getDummyReportImage(outputPath);
+        resultMap.addAlignmentRow(Arrays.asList(identical, identical, noDiff), 0);
+        resultMap.addContentRow(Arrays.asList(identical, noDiff), 0);
+
+        System.out.printf(
+                "🟰 Item %d: Input files are identical%s, pages not compared.%n",
+                itemIndex + 1, identity == FileIdentityUtil.Identity.SAME_CONTENT ? " apart from metadata" : ""
+        );
+
+        saveActivity(data, true);
+        return true;
+    }
+
+    private static void saveActivity(InputData data, boolean isTotalSuccess) {
+        String docType1 = data.getPath1().toLowerCase().endsWith(FileTypes.PDF_EXTENSION)
+                ? "PDF"
+                : "WORD";
+
+        String docType2 = data.getPath2().toLowerCase().endsWith(FileTypes.PDF_EXTENSION)
+                ? "PDF"
+                : "WORD";
+
+        // ✅ SAVE RESULT (TOTAL OR PARTIAL)
+        DBService.saveUserActivity(
+                docType1,
+                docType2,
+                Config.isProdigyValidation,
+                isTotalSuccess
+        );
+    }
+
+    /**
+     * Runs the page loop on the calling thread plus {@code workers - 1} helper threads.
+     * PDFBox documents are not thread-safe, so every helper opens its own pair of documents
+     * from the pools; the calling thread keeps using the already opened ones. Helpers borrow a
+     * {@link WorkBudget} permit per page and, when none is spare, wait for one while pages
+     * are left.
+     */
+    private static void validatePagesInParallel(RowJob job, DocumentPool pool1, DocumentPool pool2,
+                                                PDDocument doc1, PDDocument doc2, int workers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers - 1, r -> {
+            Thread t = new Thread(r, "page-worker");
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<Future<?>> helpers = new ArrayList<>();
+        try {
+            for (int w = 1; w < workers; w++) {
+                helpers.add(executor.submit(() -> {
+                    try (PDDocument ownDoc1 = pool1.open();
+                         PDDocument ownDoc2 = pool2.open()) {
+                        validatePages(job, ownDoc1, ownDoc2, true);
+                    }
+                    return null;
+                }));
+            }
+
+            validatePages(job, doc1, doc2, false);
+
+            for (Future<?> helper : helpers) {
+                try {
+                    helper.get();
+                } catch (ExecutionException e) {
+                    // A helper that could not open its documents leaves its pages to the others
+                    job.isTotalSuccess().set(false);
+                    System.err.printf(
+                            "❌ Item %d: Page worker failed - %s%n",
+                            job.itemIndex() + 1, e.getCause().getMessage()
+                    );
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Validates pages taken from the shared cursor of the row until none are left
+     * or the user stops the run. Safe to call from several threads at once.
+     *
+     * @param borrowsPermits true for helper threads, which must hold a spare
+     *                       {@link WorkBudget} permit for every page they take
+     */
+    private static void validatePages(RowJob job, PDDocument doc1, PDDocument doc2, boolean borrowsPermits) {
+        AlignmentValidator alignmentValidator = new AlignmentValidator(
+                job.outputPath(), job.itemIndex(), new PooledPdfRenderer(doc1), new PooledPdfRenderer(doc2),
+                job.resultMap(), job.writes()
+        );
+        ContentValidator contentValidator = new ContentValidator(
+                job.data(), job.outputPath(), job.itemIndex(), job.text1(), job.text2(), job.resultMap(), job.writes()
+        );
+
+        int size1 = job.range1().size();
+        int size2 = job.range2().size();
+        int maxSize = Math.max(size1, size2);
+
+        while (job.nextPage().get() < maxSize) {
+            if (job.stopped()) {
+                return;
+            }
+            if (borrowsPermits && !WorkBudget.borrow(() -> job.nextPage().get() < maxSize && !job.stopped())) {
+                return;
+            }
+
+            try {
+                int i = job.nextPage().getAndIncrement();
+                if (i < maxSize) {
+                    validatePage(job, doc1, doc2, alignmentValidator, contentValidator, i);
+                }
+            } finally {
+                if (borrowsPermits) {
+                    WorkBudget.release();
                 }
+            }
+        }
+    }
 
-                int p1 = i < size1 ? range1.get(i) : -1;
-                int p2 = i < size2 ? range2.get(i) : -1;
+    private static void validatePage(RowJob job, PDDocument doc1, PDDocument doc2,
+                                     AlignmentValidator alignmentValidator, ContentValidator contentValidator, int i) {
+        int size1 = job.range1().size();
+        int size2 = job.range2().size();
 
+        int p1 = i < size1 ? job.range1().get(i) : -1;
+        int p2 = i < size2 ? job.range2().get(i) : -1;
+
+        System.out.printf(
+                "📄 Item %d | Page %d: Doc1 Page %s, Doc2 Page %s%n",
+                job.itemIndex() + 1, i + 1,
+                p1 >= 0 ? String.valueOf(p1) : "N/A",
+                p2 >= 0 ? String.valueOf(p2) : "N/A"
+        );
+
+        try {
+            if (job.identicalPages()[i]) {
+                addIdenticalRows(job, i);
                 System.out.printf(
-                        "📄 Item %d | Page %d: Doc1 Page %s, Doc2 Page %s%n",
-                        itemIndex + 1, i + 1,
-                        p1 >= 0 ? String.valueOf(p1) : "N/A",
-                        p2 >= 0 ? String.valueOf(p2) : "N/A"
+                        "🟰 Item %d | Page %d: Fingerprints match, page skipped.%n",
+                        job.itemIndex() + 1, i + 1
                 );
+                return;
+            }
 
-                try {
-                    List<BufferedImage> images =
-                            alignmentValidator.validateAlignment(p1, p2, i + 1);
-
-                    contentValidator.validateContent(p1, p2, i + 1, images);
+            boolean triage = Config.triageDpi > 0 && Config.triageDpi < Config.renderDpi;
+            if (Config.textFirst || triage) {
+                // Text first, so a text change skips the thumbnail pass
+                List<WordInfo> diff = contentValidator.compareText(p1, p2, i + 1);
 
+                if (Config.textFirst && diff.isEmpty() && p1 >= 0 && p2 >= 0
+                        && job.text1().samePositions(p1, job.text2(), p2)
+                        && PageFingerprint.samePage(doc1, p1, doc2, p2)) {
+                    addIdenticalRows(job, i);
                     System.out.printf(
-                            "✅ Item %d | Page %d: Validation complete.%n",
-                            itemIndex + 1, i + 1
+                            "🟰 Item %d | Page %d: Text, positions and page content identical, rendering skipped.%n",
+                            job.itemIndex() + 1, i + 1
                     );
+                } else {
+                    List<BufferedImage> images = triage
+                            ? alignmentValidator.validateAlignmentTriaged(p1, p2, i + 1, !diff.isEmpty())
+                            : alignmentValidator.validateAlignment(p1, p2, i + 1);
 
-                } catch (Exception e) {
-                    isTotalSuccess = false; // 👈 MARK PARTIAL FAILURE
-                    System.err.printf(
-                            "❌ Item %d | Page %d: Validation failed - %s%n",
-                            itemIndex + 1, i + 1, e.getMessage()
-                    );
-                    e.printStackTrace();
+                    contentValidator.validateContent(i + 1, images, diff);
+                    job.writes().recycle(i + 1, images);
                 }
+            } else {
+                List<BufferedImage> images =
+                        alignmentValidator.validateAlignment(p1, p2, i + 1);
+
+                contentValidator.validateContent(p1, p2, i + 1, images);
+                job.writes().recycle(i + 1, images);
             }
 
             System.out.printf(
-                    "✔️  Item %d: Validation for all pages completed.%n",
-                    itemIndex + 1
+                    "✅ Item %d | Page %d: Validation complete.%n",
+                    job.itemIndex() + 1, i + 1
+            );
+
+        } catch (Exception e) {
+            job.isTotalSuccess().set(false); // 👈 MARK PARTIAL FAILURE
+            System.err.printf(
+                    "❌ Item %d | Page %d: Validation failed - %s%n",
+                    job.itemIndex() + 1, i + 1, e.getMessage()
             );
+            e.printStackTrace();
+        }
+    }
 
-            String docType1 = data.getPath1().toLowerCase().endsWith(FileTypes.PDF_EXTENSION)
-                    ? "PDF"
-                    : "WORD";
+    /**
+     * Pages of the range whose position is not already known to be identical.
+     */
+    private static List<Integer> pagesToCompare(List<Integer> range, boolean[] identical) {
+        List<Integer> pages = new ArrayList<>(range.size());
+        for (int i = 0; i < range.size(); i++) {
+            if (!identical[i]) {
+                pages.add(range.get(i));
+            }
+        }
+        return pages;
+    }
 
-            String docType2 = data.getPath2().toLowerCase().endsWith(FileTypes.PDF_EXTENSION)
-                    ? "PDF"
-                    : "WORD";
+    private static int countTrue(boolean[] flags) {
+        int count = 0;
+        for (boolean flag : flags) {
+            if (flag) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Points the alignment and content rows of a page that was not rendered at the shared
+     * "identical page" image, with the usual no-difference image in the diff slots.
+     */
+    private static void addIdenticalRows(RowJob job, int i) throws IOException {
+        String identical = ImageUtils.getIdenticalPageImage(job.outputPath());
+        String noDiff = ImageUtils.getDummyReportImage(job.outputPath());
+
+        job.resultMap().addAlignmentRow(Arrays.asList(identical, identical, noDiff), i);
+        job.resultMap().addContentRow(Arrays.asList(identical, noDiff), i);
+    }
 
-            // ✅ SAVE RESULT (TOTAL OR PARTIAL)
-            DBService.saveUserActivity(
-                    docType1,
-                    docType2,
-                    Config.isProdigyValidation,
-                    isTotalSuccess
+    /**
+     * Waits for the images queued by the pages of the row. A page whose image could not be
+     * written is reported like any other failed page.
+     */
+    private static void awaitWrites(RowJob job) throws InterruptedException {
+        job.writes().awaitAll().forEach((page, error) -> {
+            job.isTotalSuccess().set(false);
+            System.err.printf(
+                    "❌ Item %d | Page %d: Validation failed - %s%n",
+                    job.itemIndex() + 1, page, error.getMessage()
             );
+            error.printStackTrace();
+        });
+    }
 
+    /**
+     * Releases the prefetch of the row's Word inputs it has not taken. No-op for the ones
+     * it did take.
+     */
+    private static void skipPrefetch(InputData data) {
+        for (String path : List.of(data.getPath1(), data.getPath2())) {
+            if (!path.toLowerCase().endsWith(FileTypes.PDF_EXTENSION)) {
+                ConversionPrefetcher.skip(path);
+            }
         }
     }
 
     private static File ensurePdf(String path) throws Exception {
-        return path.toLowerCase().endsWith(FileTypes.PDF_EXTENSION)
-                ? new File(path)
-                : WordToPdfConverter.convertToPdf(path);
+        if (path.toLowerCase().endsWith(FileTypes.PDF_EXTENSION)) {
+            return new File(path);
+        }
+
+        File prefetched = ConversionPrefetcher.take(path);
+        return prefetched != null ? prefetched : WordToPdfConverter.convertToPdf(path);
+    }
+
+    /**
+     * State of one row shared by all of its page workers.
+     * Pages are handed out in order through {@code nextPage}; {@code identicalPages}
+     * flags the positions whose fingerprints matched and need no work.
+     */
+    private record RowJob(
+            StopListener stopListener,
+            InputData data,
+            int itemIndex,
+            MapModel resultMap,
+            String outputPath,
+            List<Integer> range1,
+            List<Integer> range2,
+            boolean[] identicalPages,
+            PageTextIndex text1,
+            PageTextIndex text2,
+            AtomicInteger nextPage,
+            AtomicBoolean isTotalSuccess,
+            PageWrites writes
+    ) {
+        boolean stopped() {
+            return stopListener != null && stopListener.stoppedByUser();
+        }
     }
 }
@@ -0,0 +1,294 @@
+package pdfproject.core;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import pdfproject.constants.AppPaths;
+import pdfproject.utils.HashUtil;
+import pdfproject.utils.PageHashUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fingerprints of the pages of a PDF: a SHA-256 of the decoded content streams, the page
+ * boxes and rotation, the resources the page draws with (fonts, images, forms, graphics
+ * states) and its annotations. Pages with equal fingerprints render and extract alike,
+ * so a row can skip them without touching them again.
+ * <p>
+ * Fingerprints are kept on disk next to the conversion cache, one file per PDF content,
+ * so repeat runs over the same documents only hash the files.
+ */
+public final class PageFingerprint {
+
+    private static final String CACHE_DIR = AppPaths.APP_HOME + File.separator + "fingerprint-cache";
+
+    // Part of every cache key, bumped whenever the hashed fields change
+    private static final String VERSION = "v1";
+
+    private static final int MAX_CACHED_FILES = 2000;
+
+    // Links into the page tree, structure tree or metadata, which a re-export renumbers or re-dates
+    private static final Set<COSName> SKIPPED_KEYS = Set.of(
+            COSName.PARENT, COSName.P, COSName.STRUCT_PARENT, COSName.STRUCT_PARENTS,
+            COSName.METADATA, COSName.PIECE_INFO, COSName.LAST_MODIFIED, COSName.M, COSName.NM,
+            COSName.LENGTH
+    );
+
+    // Page keys hashed on their own, resolved through the page tree
+    private static final Set<COSName> PAGE_KEYS = Set.of(
+            COSName.CONTENTS, COSName.RESOURCES, COSName.MEDIA_BOX, COSName.CROP_BOX, COSName.ROTATE
+    );
+
+    private PageFingerprint() {}
+
+    /**
+     * Fingerprints of all pages of the document, indexed by page number - 1.
+     * A page that could not be read has a null fingerprint and matches nothing.
+     *
+     * @param pdf the file the document was loaded from, used as the cache key
+     */
+    public static String[] of(File pdf, PDDocument document) {
+        int pages = document.getNumberOfPages();
+
+        String key = null;
+        try {
+            key = HashUtil.sha256(pdf) + "-" + VERSION;
+            String[] cached = load(key, pages);
+            if (cached != null) {
+                return cached;
+            }
+        } catch (IOException e) {
+            // Fingerprint anyway, just without the cache
+        }
+
+        String[] fingerprints = new String[pages];
+        boolean complete = true;
+        for (int i = 0; i < pages; i++) {
+            try {
+                fingerprints[i] = fingerprint(document.getPage(i));
+            } catch (IOException | RuntimeException e) {
+                complete = false;
+            }
+        }
+
+        if (key != null && complete) {
+            store(key, fingerprints);
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Marks the page pairs whose fingerprints match.
+     *
+     * @return one flag per position of the row, true where both pages are identical
+     */
+    public static boolean[] matches(String[] prints1, List<Integer> range1, String[] prints2, List<Integer> range2) {
+        int size = Math.max(range1.size(), range2.size());
+        boolean[] identical = new boolean[size];
+        for (int i = 0; i < Math.min(range1.size(), range2.size()); i++) {
+            int p1 = range1.get(i);
+            int p2 = range2.get(i);
+            if (p1 >= 0 && p2 >= 0) {
+                String print1 = prints1[p1 - 1];
+                identical[i] = print1 != null && print1.equals(prints2[p2 - 1]);
+            }
+        }
+        return identical;
+    }
+
+    /**
+     * True when both pages have the same fingerprint, without going through the cache.
+     *
+     * @param page1 1-based page number in doc1
+     * @param page2 1-based page number in doc2
+     */
+    public static boolean samePage(PDDocument doc1, int page1, PDDocument doc2, int page2) throws IOException {
+        return fingerprint(doc1.getPage(page1 - 1)).equals(fingerprint(doc2.getPage(page2 - 1)));
+    }
+
+    private static String fingerprint(PDPage page) throws IOException {
+        MessageDigest digest = HashUtil.sha256();
+        Map<COSBase, Integer> visited = new IdentityHashMap<>();
+
+        PageHashUtil.updateContent(digest, page);
+        hash(page.getMediaBox().getCOSArray(), digest, visited);
+        hash(page.getCropBox().getCOSArray(), digest, visited);
+        putLong(digest, page.getRotation());
+
+        PDResources resources = page.getResources();
+        hash(resources != null ? resources.getCOSObject() : null, digest, visited);
+
+        COSDictionary dict = page.getCOSObject();
+        visited.put(dict, visited.size());
+        hashEntries(dict, PAGE_KEYS, digest, visited);
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hashes a COS object graph in a fixed order: dictionary keys sorted, streams by their
+     * stored bytes and filters, and objects seen before by the order they were first seen,
+     * so two files with different object numbers hash alike.
+     */
+    private static void hash(COSBase base, MessageDigest digest, Map<COSBase, Integer> visited) throws IOException {
+        if (base instanceof COSObject object) {
+            base = object.getObject();
+        }
+
+        if (base == null) {
+            digest.update((byte) 'n');
+        } else if (base instanceof COSDictionary dict) {
+            Integer seen = visited.putIfAbsent(dict, visited.size());
+            if (seen != null) {
+                digest.update((byte) 'r');
+                putLong(digest, seen);
+                return;
+            }
+
+            digest.update((byte) (dict instanceof COSStream ? 's' : 'd'));
+            hashEntries(dict, Set.of(), digest, visited);
+
+            if (dict instanceof COSStream stream) {
+                try (InputStream in = stream.createRawInputStream()) {
+                    HashUtil.update(digest, in);
+                }
+            }
+        } else if (base instanceof COSArray array) {
+            Integer seen = visited.putIfAbsent(array, visited.size());
+            if (seen != null) {
+                digest.update((byte) 'r');
+                putLong(digest, seen);
+                return;
+            }
+
+            digest.update((byte) 'a');
+            putLong(digest, array.size());
+            for (int i = 0; i < array.size(); i++) {
+                hash(array.get(i), digest, visited);
+            }
+        } else if (base instanceof COSName name) {
+            digest.update((byte) '/');
+            putBytes(digest, name.getName().getBytes(StandardCharsets.UTF_8));
+        } else if (base instanceof COSString string) {
+            digest.update((byte) '(');
+            putBytes(digest, string.getBytes());
+        } else if (base instanceof COSNumber number) {
+            digest.update((byte) '#');
+            putLong(digest, Float.floatToIntBits(number.floatValue()));
+        } else if (base instanceof COSBoolean bool) {
+            digest.update((byte) (bool.getValue() ? 't' : 'f'));
+        } else {
+            digest.update((byte) 'n');
+        }
+    }
+
+    private static void hashEntries(COSDictionary dict, Set<COSName> skipped, MessageDigest digest,
+                                    Map<COSBase, Integer> visited) throws IOException {
+        List<COSName> keys = new ArrayList<>(dict.keySet());
+        keys.sort(Comparator.naturalOrder());
+
+        for (COSName key : keys) {
+            if (skipped.contains(key) || SKIPPED_KEYS.contains(key)) {
+                continue;
+            }
+            putBytes(digest, key.getName().getBytes(StandardCharsets.UTF_8));
+            hash(dict.getItem(key), digest, visited);
+        }
+        digest.update((byte) 'e');
+    }
+
+    private static void putBytes(MessageDigest digest, byte[] bytes) {
+        putLong(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void putLong(MessageDigest digest, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (value >>> shift));
+        }
+    }
+
+    private static String[] load(String key, int pages) throws IOException {
+        File file = new File(CACHE_DIR, key + ".txt");
+        if (!file.isFile()) {
+            return null;
+        }
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII);
+        if (lines.size() != pages) {
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis()); // LRU order is kept in the file times
+        return lines.toArray(new String[0]);
+    }
+
+    private static void store(String key, String[] fingerprints) {
+        File dir = new File(CACHE_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            return;
+        }
+
+        File file = new File(dir, key + ".txt");
+        try {
+            // Written aside and moved in, so a row reading the same entry never sees half of it
+            File temp = File.createTempFile(key, ".tmp", dir);
+            Files.write(temp.toPath(), Arrays.asList(fingerprints), StandardCharsets.US_ASCII);
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Still usable for this run, just not remembered
+            return;
+        }
+
+        evict(file);
+    }
+
+    /**
+     * Deletes the least recently used entries beyond {@link #MAX_CACHED_FILES}.
+     * The entry just added is always kept.
+     */
+    private static synchronized void evict(File keep) {
+        File[] files = new File(CACHE_DIR).listFiles((d, name) -> name.endsWith(".txt"));
+        if (files == null || files.length <= MAX_CACHED_FILES) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        int excess = files.length - MAX_CACHED_FILES;
+        for (File file : files) {
+            if (excess == 0) {
+                break;
+            }
+            if (!file.equals(keep) && file.delete()) {
+                excess--;
+            }
+        }
+    }
+}
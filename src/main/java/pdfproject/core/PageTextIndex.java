@@ -0,0 +1,396 @@
+package pdfproject.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import pdfproject.interfaces.StopListener;
+import pdfproject.models.FontTable;
+import pdfproject.models.GlyphStore;
+import pdfproject.models.WordInfo;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Words of the pages of one document that a row validates, extracted up front with one
+ * text stripper. Every contiguous run of pages is stripped with a single getText call,
+ * so a page listed in several ranges is still extracted once.
+ * <p>
+ * Characters are kept in a {@link GlyphStore} per page; the TextPositions are dropped
+ * once their page is stored. Read-only once built, so page workers can share it.
+ * Every read returns fresh {@link WordInfo} objects, since the diff marks them.
+ * <p>
+ * A run that fails is stripped again page by page. A page that still fails is kept as a
+ * failure, which {@link #words} throws when that page is validated, so one bad page fails
+ * only itself. Extraction stops between runs and pages once the user stops the run; the
+ * index is then incomplete, and the row is expected to end without validating its pages.
+ */
+public class PageTextIndex {
+
+    // Fewer pages per helper do not pay for opening another document
+    private static final int MIN_PAGES_PER_SHARE = 8;
+
+    private final Map<Integer, PageWords> pages;
+
+    private PageTextIndex(Map<Integer, PageWords> pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Extracts the given pages.
+     *
+     * @param pageNumbers    1-based page numbers, in any order and with repeats (RangeParser output)
+     * @param sortByPosition passed on to {@link PDFTextStripper#setSortByPosition}
+     * @param fonts          font table of the row, shared with the other document
+     * @param stopListener   checked between runs of pages; may be null
+     */
+    public static PageTextIndex build(PDDocument document, List<Integer> pageNumbers, boolean sortByPosition,
+                                      FontTable fonts, StopListener stopListener) throws IOException {
+        Map<Integer, PageWords> pages = new HashMap<>();
+        strip(document, wantedPages(pageNumbers), sortByPosition, fonts, stopListener, pages);
+        return new PageTextIndex(pages);
+    }
+
+    /**
+     * Extracts the given pages on the calling thread plus up to {@code workers - 1} helper
+     * threads, each stripping its share of the pages from its own document opened from the
+     * pool. Helpers borrow a {@link WorkBudget} permit per share, like page workers do;
+     * shares no helper finished are stripped by the calling thread.
+     *
+     * @see #build(PDDocument, List, boolean, FontTable, StopListener)
+     */
+    public static PageTextIndex build(PDDocument document, DocumentPool pool, List<Integer> pageNumbers,
+                                      boolean sortByPosition, FontTable fonts, int workers,
+                                      StopListener stopListener) throws IOException {
+        List<Integer> wanted = wantedPages(pageNumbers);
+        int shareCount = Math.min(workers, wanted.size() / MIN_PAGES_PER_SHARE);
+        if (shareCount <= 1) {
+            return build(document, pageNumbers, sortByPosition, fonts, stopListener);
+        }
+
+        List<List<Integer>> shares = new ArrayList<>(shareCount);
+        int shareSize = (wanted.size() + shareCount - 1) / shareCount;
+        for (int from = 0; from < wanted.size(); from += shareSize) {
+            shares.add(wanted.subList(from, Math.min(from + shareSize, wanted.size())));
+        }
+
+        Map<Integer, PageWords> pages = new ConcurrentHashMap<>();
+        Set<Integer> done = ConcurrentHashMap.newKeySet();
+        AtomicInteger nextShare = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(shares.size() - 1, r -> {
+            Thread t = new Thread(r, "text-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> helpers = new ArrayList<>();
+            for (int w = 1; w < shares.size(); w++) {
+                helpers.add(executor.submit(() -> {
+                    try (PDDocument ownDoc = pool.open()) {
+                        stripShares(ownDoc, shares, nextShare, done, sortByPosition, fonts, stopListener, pages,
+                                true);
+                    }
+                    return null;
+                }));
+            }
+
+            stripShares(document, shares, nextShare, done, sortByPosition, fonts, stopListener, pages, false);
+
+            for (Future<?> helper : helpers) {
+                try {
+                    helper.get();
+                } catch (ExecutionException e) {
+                    // Its share is picked up below
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Text extraction interrupted");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < shares.size(); i++) {
+            if (!done.contains(i)) {
+                strip(document, shares.get(i), sortByPosition, fonts, stopListener, pages);
+            }
+        }
+        return new PageTextIndex(new HashMap<>(pages));
+    }
+
+    private static void stripShares(PDDocument document, List<List<Integer>> shares, AtomicInteger nextShare,
+                                    Set<Integer> done, boolean sortByPosition, FontTable fonts,
+                                    StopListener stopListener, Map<Integer, PageWords> pages,
+                                    boolean borrowsPermits) throws IOException {
+        while (nextShare.get() < shares.size() && !isStopped(stopListener)) {
+            if (borrowsPermits
+                    && !WorkBudget.borrow(() -> nextShare.get() < shares.size() && !isStopped(stopListener))) {
+                return;
+            }
+            try {
+                int i = nextShare.getAndIncrement();
+                if (i < shares.size()) {
+                    Map<Integer, PageWords> share = new HashMap<>();
+                    strip(document, shares.get(i), sortByPosition, fonts, stopListener, share);
+                    pages.putAll(share);
+                    done.add(i);
+                }
+            } finally {
+                if (borrowsPermits) {
+                    WorkBudget.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Distinct existing pages in ascending order.
+     */
+    private static List<Integer> wantedPages(List<Integer> pageNumbers) {
+        Set<Integer> wanted = new TreeSet<>(pageNumbers);
+        wanted.remove(-1);
+        return new ArrayList<>(wanted);
+    }
+
+    /**
+     * Strips ascending pages into the map, one getText call per contiguous run.
+     */
+    private static void strip(PDDocument document, List<Integer> wanted, boolean sortByPosition, FontTable fonts,
+                              StopListener stopListener, Map<Integer, PageWords> pages) throws IOException {
+        Integer runStart = null;
+        Integer previous = null;
+        for (int page : wanted) {
+            if (runStart != null && page != previous + 1) {
+                stripRun(document, runStart, previous, sortByPosition, fonts, stopListener, pages);
+                runStart = null;
+            }
+            if (runStart == null) {
+                runStart = page;
+            }
+            previous = page;
+        }
+        if (runStart != null) {
+            stripRun(document, runStart, previous, sortByPosition, fonts, stopListener, pages);
+        }
+    }
+
+    /**
+     * Strips one contiguous run; if that fails, strips its pages one at a time and keeps
+     * the failure of each page that still fails.
+     */
+    private static void stripRun(PDDocument document, int startPage, int endPage, boolean sortByPosition,
+                                 FontTable fonts, StopListener stopListener, Map<Integer, PageWords> pages)
+            throws IOException {
+        if (isStopped(stopListener)) {
+            return;
+        }
+        try {
+            newStripper(pages, fonts, sortByPosition).strip(document, startPage, endPage);
+            return;
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // Retried page by page below
+        }
+
+        for (int page = startPage; page <= endPage; page++) {
+            if (isStopped(stopListener)) {
+                return;
+            }
+            if (pages.containsKey(page)) {
+                continue; // finished before the run failed
+            }
+            try {
+                newStripper(pages, fonts, sortByPosition).strip(document, page, page);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                pages.put(page, PageWords.failed(e));
+            }
+        }
+    }
+
+    private static WordStripper newStripper(Map<Integer, PageWords> pages, FontTable fonts, boolean sortByPosition)
+            throws IOException {
+        WordStripper stripper = new WordStripper(pages, fonts);
+        stripper.setSortByPosition(sortByPosition);
+        return stripper;
+    }
+
+    private static boolean isStopped(StopListener stopListener) {
+        return stopListener != null && stopListener.stoppedByUser();
+    }
+
+    /**
+     * Words of a page in reading order, as fresh objects the caller may change.
+     *
+     * @param pageNum 1-based page number, or -1 for a missing page
+     * @throws IOException if the text of the page could not be extracted
+     */
+    public List<WordInfo> words(int pageNum) throws IOException {
+        PageWords page = pages.get(pageNum);
+        if (page == null) {
+            return new ArrayList<>();
+        }
+        if (page.error != null) {
+            throw new IOException("Text extraction of page " + pageNum + " failed: " + page.error.getMessage(),
+                    page.error);
+        }
+
+        List<WordInfo> words = new ArrayList<>(page.words.length);
+        for (int i = 0; i < page.words.length; i++) {
+            WordInfo wordInfo = new WordInfo(page.words[i], page.glyphs, page.starts[i]);
+            wordInfo.setLine(page.lines[i]);
+            words.add(wordInfo);
+        }
+        return words;
+    }
+
+    /**
+     * True when both pages were extracted and have their glyphs at the same positions.
+     *
+     * @param pageNum      1-based page number in this index
+     * @param otherPageNum 1-based page number in the other index
+     */
+    public boolean samePositions(int pageNum, PageTextIndex other, int otherPageNum) {
+        PageWords page = pages.get(pageNum);
+        PageWords otherPage = other.pages.get(otherPageNum);
+        return page != null && otherPage != null && page.error == null && otherPage.error == null
+                && page.glyphs.samePositions(otherPage.glyphs);
+    }
+
+    /**
+     * One page in flat arrays; word i starts at glyph starts[i] and has one glyph per character.
+     * A page whose extraction failed has only the error.
+     */
+    private record PageWords(String[] words, int[] lines, int[] starts, GlyphStore glyphs, Exception error) {
+
+        PageWords(String[] words, int[] lines, int[] starts, GlyphStore glyphs) {
+            this(words, lines, starts, glyphs, null);
+        }
+
+        static PageWords failed(Exception error) {
+            return new PageWords(null, null, null, null, error);
+        }
+    }
+
+    /**
+     * Splits the text of each page into words of non-whitespace characters, with one
+     * TextPosition per character and lines numbered from 1 on every page.
+     */
+    private static final class WordStripper extends PDFTextStripper {
+        // Words whose baseline is within this share of the tallest glyph height from the
+        // line's first word are on that line, so sub- and superscripts and mixed font sizes
+        // do not split it. The height is about the cap height, while lines are at least
+        // an em apart
+        private static final float LINE_TOLERANCE = 1.0f;
+
+        private final Map<Integer, PageWords> pages;
+        private final FontTable fonts;
+
+        private final List<String> words = new ArrayList<>();
+        private final List<Integer> lines = new ArrayList<>();
+        private final List<Integer> starts = new ArrayList<>();
+        private GlyphStore glyphs;
+        private float linePosition;
+        private float lineHeight;
+        private int line;
+
+        WordStripper(Map<Integer, PageWords> pages, FontTable fonts) {
+            this.pages = pages;
+            this.fonts = fonts;
+        }
+
+        void strip(PDDocument document, int startPage, int endPage) throws IOException {
+            setStartPage(startPage);
+            setEndPage(endPage);
+            getText(document);
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            super.startPage(page);
+            words.clear();
+            lines.clear();
+            starts.clear();
+            glyphs = new GlyphStore(fonts, 2048);
+            line = 0;
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+
+            int[] lineArray = new int[lines.size()];
+            int[] startArray = new int[starts.size()];
+            for (int i = 0; i < lineArray.length; i++) {
+                lineArray[i] = lines.get(i);
+                startArray[i] = starts.get(i);
+            }
+            glyphs.trimToSize();
+
+            pages.put(getCurrentPageNo(), new PageWords(words.toArray(new String[0]), lineArray, startArray, glyphs));
+        }
+
+        @Override
+        protected void writeString(String ignored, List<TextPosition> textPositions) {
+            StringBuilder currentWord = new StringBuilder();
+            List<TextPosition> currentPositions = new ArrayList<>();
+
+            for (TextPosition tp : textPositions) {
+                // Break down combined Unicode characters
+                for (char c : tp.getUnicode().toCharArray()) {
+                    if (Character.isWhitespace(c)) {
+                        addWord(currentWord, currentPositions);
+                    } else {
+                        currentWord.append(c);
+                        currentPositions.add(tp); // Same tp reused for each char — intentional
+                    }
+                }
+            }
+
+            // Final word
+            addWord(currentWord, currentPositions);
+        }
+
+        private void addWord(StringBuilder word, List<TextPosition> wordPositions) {
+            if (word.isEmpty()) {
+                return;
+            }
+
+            float position = wordPositions.get(0).getY();
+            float height = wordPositions.get(0).getHeightDir();
+            if (line == 0 || Math.abs(position - linePosition) > LINE_TOLERANCE * Math.max(height, lineHeight)) {
+                line++;
+                linePosition = position;
+                lineHeight = height;
+            } else {
+                lineHeight = Math.max(lineHeight, height);
+            }
+
+            words.add(word.toString());
+            lines.add(line);
+            starts.add(glyphs.size());
+            for (TextPosition tp : wordPositions) {
+                glyphs.add(tp);
+            }
+
+            word.setLength(0);
+            wordPositions.clear();
+        }
+    }
+}
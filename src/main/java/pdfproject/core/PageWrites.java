@@ -0,0 +1,82 @@
+package pdfproject.core;
+
+import pdfproject.utils.ImagePool;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Image writes of one row, remembered by page so that a failed write is reported
+ * against the page that produced it. Shared by all page workers of the row.
+ */
+public class PageWrites {
+
+    private final Map<Integer, List<CompletableFuture<Void>>> writes = new TreeMap<>();
+
+    /**
+     * Queues the image on {@link ImageWriter} on behalf of the given page.
+     *
+     * @param imagePage displayed page number (1-based)
+     * @throws IOException if written on the calling thread and that failed, so the page fails at once
+     */
+    public void write(int imagePage, BufferedImage image, File file) throws IOException {
+        CompletableFuture<Void> write = ImageWriter.write(image, file);
+        synchronized (writes) {
+            writes.computeIfAbsent(imagePage, p -> new ArrayList<>()).add(write);
+        }
+    }
+
+    /**
+     * Returns the images to the {@link ImagePool} once every write queued so far for the
+     * page has finished, successfully or not. Nulls and repeats in the list are ignored.
+     */
+    public void recycle(int imagePage, List<BufferedImage> images) {
+        List<CompletableFuture<Void>> pending;
+        synchronized (writes) {
+            pending = new ArrayList<>(writes.getOrDefault(imagePage, List.of()));
+        }
+
+        Set<BufferedImage> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BufferedImage image : images) {
+            if (image != null) {
+                distinct.add(image);
+            }
+        }
+
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, error) -> distinct.forEach(ImagePool::release));
+    }
+
+    /**
+     * Waits for every queued write and returns the first failure of each page, by page number.
+     */
+    public Map<Integer, Throwable> awaitAll() throws InterruptedException {
+        Map<Integer, List<CompletableFuture<Void>>> snapshot;
+        synchronized (writes) {
+            snapshot = new TreeMap<>(writes);
+            writes.clear();
+        }
+
+        Map<Integer, Throwable> failures = new TreeMap<>();
+        for (Map.Entry<Integer, List<CompletableFuture<Void>>> page : snapshot.entrySet()) {
+            for (CompletableFuture<Void> write : page.getValue()) {
+                try {
+                    write.get();
+                } catch (ExecutionException e) {
+                    failures.putIfAbsent(page.getKey(), e.getCause());
+                }
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,151 @@
+package pdfproject.core;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.RenderDestination;
+import pdfproject.Config;
+import pdfproject.utils.ImagePool;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * {@link PDFRenderer} that draws pages into images leased from {@link ImagePool}.
+ * Sizes the image and clears it the way PDFRenderer does, then draws the page with
+ * {@link #renderPageToGraphics}, so the pixels come out the same.
+ * <p>
+ * Pages that use transparency groups or blend modes anywhere, in their own resources, in
+ * nested forms, patterns and soft masks, or in annotation appearances, are rendered by
+ * PDFRenderer itself: it draws blend modes on an ARGB canvas, and non-isolated groups use
+ * its private page image as their backdrop, which this class cannot set. Pages drawn here
+ * have no such groups, so they never read that backdrop. Everything is rendered by
+ * PDFRenderer while the pool is off.
+ */
+public class PooledPdfRenderer extends PDFRenderer {
+
+    public PooledPdfRenderer(PDDocument document) {
+        super(document);
+    }
+
+    @Override
+    public BufferedImage renderImage(int pageIndex, float scale, ImageType imageType, RenderDestination destination)
+            throws IOException {
+        PDPage page = document.getPage(pageIndex);
+        if (Config.imagePoolSize <= 0 || usesTransparency(page)) {
+            return super.renderImage(pageIndex, scale, imageType, destination);
+        }
+
+        PDRectangle cropBox = page.getCropBox();
+        int widthPx = (int) Math.max(Math.floor(cropBox.getWidth() * scale), 1);
+        int heightPx = (int) Math.max(Math.floor(cropBox.getHeight() * scale), 1);
+        if ((long) widthPx * heightPx > Integer.MAX_VALUE) {
+            // Let PDFRenderer report it
+            return super.renderImage(pageIndex, scale, imageType, destination);
+        }
+
+        int rotation = page.getRotation();
+        boolean sideways = rotation == 90 || rotation == 270;
+        BufferedImage image = ImagePool.lease(
+                sideways ? heightPx : widthPx, sideways ? widthPx : heightPx, bufferedImageType(imageType)
+        );
+
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setBackground(imageType == ImageType.ARGB ? new Color(0, 0, 0, 0) : Color.WHITE);
+            g.clearRect(0, 0, image.getWidth(), image.getHeight());
+            renderPageToGraphics(pageIndex, g, scale, scale, destination);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static int bufferedImageType(ImageType imageType) {
+        return switch (imageType) {
+            case BINARY -> BufferedImage.TYPE_BYTE_BINARY;
+            case GRAY -> BufferedImage.TYPE_BYTE_GRAY;
+            case RGB -> BufferedImage.TYPE_INT_RGB;
+            case ARGB -> BufferedImage.TYPE_INT_ARGB;
+            case BGR -> BufferedImage.TYPE_3BYTE_BGR;
+        };
+    }
+
+    /**
+     * True if anything the page draws may open a transparency group or blend: a page group,
+     * a form with a group (soft masks are forms too), or a graphics state with a blend mode
+     * other than Normal. Walks the page resources and annotation appearances; conservative,
+     * so a false positive only costs the pool.
+     */
+    private static boolean usesTransparency(PDPage page) {
+        COSDictionary pageDict = page.getCOSObject();
+        if (pageDict.containsKey(COSName.GROUP)) {
+            return true;
+        }
+
+        Set<COSBase> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (usesTransparency(pageDict.getDictionaryObject(COSName.RESOURCES), visited)) {
+            return true;
+        }
+
+        // Only the appearances of annotations; their other keys lead back into the page tree
+        if (pageDict.getDictionaryObject(COSName.ANNOTS) instanceof COSArray annots) {
+            for (COSBase annot : annots) {
+                if (annot instanceof COSObject object) {
+                    annot = object.getObject();
+                }
+                if (annot instanceof COSDictionary annotDict
+                        && usesTransparency(annotDict.getDictionaryObject(COSName.AP), visited)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean usesTransparency(COSBase base, Set<COSBase> visited) {
+        if (base instanceof COSObject object) {
+            base = object.getObject();
+        }
+
+        if (base instanceof COSDictionary dict) {
+            if (!visited.add(dict)) {
+                return false;
+            }
+            if (dict.containsKey(COSName.GROUP)) {
+                return true;
+            }
+            COSBase blendMode = dict.getDictionaryObject(COSName.BM);
+            if (blendMode != null && !COSName.NORMAL.equals(blendMode) && !COSName.COMPATIBLE.equals(blendMode)) {
+                return true;
+            }
+            for (COSBase value : dict.getValues()) {
+                if (usesTransparency(value, visited)) {
+                    return true;
+                }
+            }
+        } else if (base instanceof COSArray array) {
+            if (!visited.add(array)) {
+                return false;
+            }
+            for (COSBase value : array) {
+                if (usesTransparency(value, visited)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
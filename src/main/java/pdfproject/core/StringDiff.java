@@ -2,15 +2,20 @@ package pdfproject.core;
 
 import pdfproject.Config;
 import pdfproject.constants.Operation;
+import pdfproject.core.diff.DiffEngine;
+import pdfproject.core.diff.EditSink;
+import pdfproject.core.diff.TokenDictionary;
 import pdfproject.models.WordInfo;
 import pdfproject.utils.FontInfoUtil;
 import pdfproject.utils.WordUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Class for comparing two lists of WordInfo objects and identifying differences.
+ * The edit script comes from the engine selected by {@link Config#diffAlgorithm}.
  */
 public class StringDiff {
 
@@ -27,67 +32,280 @@ public class StringDiff {
             return null;
         }
         List<WordInfo> result = new ArrayList<>();
-        int m = words1.size();
-        int n = words2.size();
-
-        int[][] LCSuffix = new int[m + 1][n + 1];
-        for (int i = 1; i <= m; i++) {
-            for (int j = 1; j <= n; j++) {
-                if (words1.get(m - i).getWord().equals(words2.get(n - j).getWord())) {
-                    LCSuffix[i][j] = LCSuffix[i - 1][j - 1] + 1;
-                } else {
-                    LCSuffix[i][j] = Math.max(LCSuffix[i - 1][j], LCSuffix[i][j - 1]);
-                }
+        ChangeOrderSink collector = new ChangeOrderSink(new ResultCollector(words1, words2, result));
+
+        TokenDictionary dictionary = new TokenDictionary();
+        int[] tokens1 = encode(words1, dictionary);
+        int[] tokens2 = encode(words2, dictionary);
+
+        if (Config.lineDiff) {
+            diffByLines(words1, words2, tokens1, tokens2, collector);
+        } else {
+            diffTokens(tokens1, 0, tokens1.length, tokens2, 0, tokens2.length, collector);
+        }
+        collector.flush();
+
+        return result;
+    }
+
+    /**
+     * Diffs tokens1[from1, to1) against tokens2[from2, to2). The common prefix and suffix are
+     * reported as equal directly, so mostly identical input only sends the edited middle
+     * to the engine. Package-private for the tests.
+     */
+    static void diffTokens(int[] tokens1, int from1, int to1,
+                                   int[] tokens2, int from2, int to2, EditSink sink) {
+        int prefix = 0;
+        while (from1 + prefix < to1 && from2 + prefix < to2
+                && tokens1[from1 + prefix] == tokens2[from2 + prefix]) {
+            sink.equal(from1 + prefix, from2 + prefix);
+            prefix++;
+        }
+        from1 += prefix;
+        from2 += prefix;
+
+        int suffix = 0;
+        while (suffix < to1 - from1 && suffix < to2 - from2
+                && tokens1[to1 - 1 - suffix] == tokens2[to2 - 1 - suffix]) {
+            suffix++;
+        }
+
+        if (from1 < to1 - suffix || from2 < to2 - suffix) {
+            DiffEngine.of(Config.diffAlgorithm).diff(
+                    Arrays.copyOfRange(tokens1, from1, to1 - suffix),
+                    Arrays.copyOfRange(tokens2, from2, to2 - suffix),
+                    new OffsetSink(sink, from1, from2));
+        }
+
+        for (int s = suffix; s > 0; s--) {
+            sink.equal(to1 - s, to2 - s);
+        }
+    }
+
+    /**
+     * Two-level diff: lines are matched first by their text, then words are diffed only
+     * inside each block of changed lines. Cost follows the size of the edit instead of
+     * the size of the page. Lines come from {@link WordInfo#getLine()}.
+     */
+    private static void diffByLines(List<WordInfo> words1, List<WordInfo> words2,
+                                    int[] tokens1, int[] tokens2, EditSink sink) {
+        int[] lineStarts1 = lineStarts(words1);
+        int[] lineStarts2 = lineStarts(words2);
+
+        TokenDictionary lines = new TokenDictionary();
+        int[] lineTokens1 = encodeLines(words1, lineStarts1, lines);
+        int[] lineTokens2 = encodeLines(words2, lineStarts2, lines);
+
+        LineBlockSink blocks = new LineBlockSink(tokens1, tokens2, lineStarts1, lineStarts2, sink);
+        diffTokens(lineTokens1, 0, lineTokens1.length, lineTokens2, 0, lineTokens2.length, blocks);
+        blocks.flush();
+    }
+
+    /**
+     * Index of the first word of every line, followed by the word count.
+     */
+    private static int[] lineStarts(List<WordInfo> words) {
+        int[] starts = new int[words.size() + 1];
+        int lines = 0;
+        for (int i = 0; i < words.size(); i++) {
+            if (i == 0 || words.get(i).getLine() != words.get(i - 1).getLine()) {
+                starts[lines++] = i;
+            }
+        }
+        starts[lines] = words.size();
+        return Arrays.copyOf(starts, lines + 1);
+    }
+
+    private static int[] encodeLines(List<WordInfo> words, int[] lineStarts, TokenDictionary lines) {
+        int[] tokens = new int[lineStarts.length - 1];
+        StringBuilder key = new StringBuilder();
+        for (int l = 0; l < tokens.length; l++) {
+            key.setLength(0);
+            for (int w = lineStarts[l]; w < lineStarts[l + 1]; w++) {
+                key.append(words.get(w).getWord()).append('\n');
+            }
+            tokens[l] = lines.id(key.toString());
+        }
+        return tokens;
+    }
+
+    private static int[] encode(List<WordInfo> words, TokenDictionary dictionary) {
+        int[] tokens = new int[words.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = dictionary.id(words.get(i).getWord());
+        }
+        return tokens;
+    }
+
+    /**
+     * Receives the line-level edit script. Equal lines are passed on word by word; each run
+     * of deleted and inserted lines between two equal lines is word-diffed as one block.
+     */
+    private static final class LineBlockSink implements EditSink {
+        private final int[] tokens1;
+        private final int[] tokens2;
+        private final int[] lineStarts1;
+        private final int[] lineStarts2;
+        private final EditSink words;
+
+        // Word ranges of the pending block; -1 when that side has no changed line yet
+        private int blockFrom1 = -1;
+        private int blockTo1;
+        private int blockFrom2 = -1;
+        private int blockTo2;
+
+        private LineBlockSink(int[] tokens1, int[] tokens2, int[] lineStarts1, int[] lineStarts2, EditSink words) {
+            this.tokens1 = tokens1;
+            this.tokens2 = tokens2;
+            this.lineStarts1 = lineStarts1;
+            this.lineStarts2 = lineStarts2;
+            this.words = words;
+        }
+
+        @Override
+        public void equal(int line1, int line2) {
+            flush();
+            int from1 = lineStarts1[line1];
+            int from2 = lineStarts2[line2];
+            int count = lineStarts1[line1 + 1] - from1;
+            for (int w = 0; w < count; w++) {
+                words.equal(from1 + w, from2 + w);
             }
         }
 
-        int i = m;
-        int j = n;
-        while (i > 0 && j > 0) {
-            WordInfo wordInfo1 = words1.get(m - i);
-            WordInfo wordInfo2 = words2.get(n - j);
-            String w1 = wordInfo1.getWord();
-            String w2 = wordInfo2.getWord();
-            if (w1.equals(w2)) {
-
-                if (WordUtil.isWordInfoSame(wordInfo1, wordInfo2)) {
-                    wordInfo1.addOperation(Operation.EQUAL);
-                } else {
-                    wordInfo2.setOtherTextPositions(wordInfo1.getTextPositions());
-                    FontInfoUtil.setFontDiffInfo(wordInfo2);
-                    result.add(wordInfo2);
-                }
-                i--;
-                j--;
-            } else if (LCSuffix[i - 1][j] > LCSuffix[i][j - 1]) {
-                wordInfo1.addOperation(Operation.DELETED);
-                FontInfoUtil.setFontInfo(Operation.DELETED, wordInfo1);
-                result.add(wordInfo1);
-                i--;
+        @Override
+        public void delete(int line1) {
+            if (blockFrom1 < 0) blockFrom1 = lineStarts1[line1];
+            blockTo1 = lineStarts1[line1 + 1];
+        }
+
+        @Override
+        public void insert(int line2) {
+            if (blockFrom2 < 0) blockFrom2 = lineStarts2[line2];
+            blockTo2 = lineStarts2[line2 + 1];
+        }
+
+        void flush() {
+            if (blockFrom1 < 0 && blockFrom2 < 0) {
+                return;
+            }
+            int from1 = Math.max(blockFrom1, 0);
+            int to1 = blockFrom1 < 0 ? 0 : blockTo1;
+            int from2 = Math.max(blockFrom2, 0);
+            int to2 = blockFrom2 < 0 ? 0 : blockTo2;
+
+            diffTokens(tokens1, from1, to1, tokens2, from2, to2, words);
+
+            blockFrom1 = -1;
+            blockFrom2 = -1;
+        }
+    }
+
+    /**
+     * Passes the edit script on with each run of deletes and inserts between two equal words
+     * reordered to all inserts first, then all deletes, as the LCS table emits them. The
+     * engines order the edits of a change differently, so without this the result order
+     * would depend on the engine.
+     */
+    private static final class ChangeOrderSink implements EditSink {
+        private final EditSink target;
+        private int[] deletes = new int[16];
+        private int[] inserts = new int[16];
+        private int deleteCount;
+        private int insertCount;
+
+        private ChangeOrderSink(EditSink target) {
+            this.target = target;
+        }
+
+        @Override
+        public void equal(int index1, int index2) {
+            flush();
+            target.equal(index1, index2);
+        }
+
+        @Override
+        public void delete(int index1) {
+            if (deleteCount == deletes.length) {
+                deletes = Arrays.copyOf(deletes, deleteCount * 2);
+            }
+            deletes[deleteCount++] = index1;
+        }
+
+        @Override
+        public void insert(int index2) {
+            if (insertCount == inserts.length) {
+                inserts = Arrays.copyOf(inserts, insertCount * 2);
+            }
+            inserts[insertCount++] = index2;
+        }
+
+        void flush() {
+            for (int i = 0; i < insertCount; i++) {
+                target.insert(inserts[i]);
+            }
+            for (int i = 0; i < deleteCount; i++) {
+                target.delete(deletes[i]);
+            }
+            insertCount = 0;
+            deleteCount = 0;
+        }
+    }
+
+    /**
+     * Shifts indexes of an engine run on a sub-range back to whole-page positions.
+     */
+    private record OffsetSink(EditSink target, int offset1, int offset2) implements EditSink {
+
+        @Override
+        public void equal(int index1, int index2) {
+            target.equal(index1 + offset1, index2 + offset2);
+        }
+
+        @Override
+        public void delete(int index1) {
+            target.delete(index1 + offset1);
+        }
+
+        @Override
+        public void insert(int index2) {
+            target.insert(index2 + offset2);
+        }
+    }
+
+    /**
+     * Turns the edit script into the WordInfo result: deleted and added words with their
+     * font info, and equal words whose font attributes differ.
+     */
+    private record ResultCollector(List<WordInfo> words1, List<WordInfo> words2,
+                                   List<WordInfo> result) implements EditSink {
+
+        @Override
+        public void equal(int index1, int index2) {
+            WordInfo wordInfo1 = words1.get(index1);
+            WordInfo wordInfo2 = words2.get(index2);
+
+            if (WordUtil.isWordInfoSame(wordInfo1, wordInfo2)) {
+                wordInfo1.addOperation(Operation.EQUAL);
             } else {
-                wordInfo2.addOperation(Operation.ADDED);
-                FontInfoUtil.setFontInfo(Operation.ADDED, wordInfo2);
+                wordInfo2.setCounterpart(wordInfo1);
+                FontInfoUtil.markFontDiffOperations(wordInfo2);
                 result.add(wordInfo2);
-                j--;
             }
         }
 
-        while (i > 0) {
-            // confirm del here also, use refresh list after detecting issue
-            WordInfo wordInfo1 = words1.get(m - i);
+        @Override
+        public void delete(int index1) {
+            WordInfo wordInfo1 = words1.get(index1);
             wordInfo1.addOperation(Operation.DELETED);
-            FontInfoUtil.setFontInfo(Operation.DELETED, wordInfo1);
             result.add(wordInfo1);
-            i--;
         }
 
-        while (j > 0) {
-            WordInfo wordInfo2 = words2.get(n - j);
+        @Override
+        public void insert(int index2) {
+            WordInfo wordInfo2 = words2.get(index2);
             wordInfo2.addOperation(Operation.ADDED);
-            FontInfoUtil.setFontInfo(Operation.ADDED, wordInfo2);
             result.add(wordInfo2);
-            j--;
         }
-        return result;
     }
-}
\ No newline at end of file
+}
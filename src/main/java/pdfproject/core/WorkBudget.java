@@ -0,0 +1,73 @@
+package pdfproject.core;
+
+import pdfproject.Config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Process-wide cap on busy validation threads, shared by item and page workers.
+ * A running item holds one permit for its whole row; extra page workers borrow
+ * a permit per page, and only when no item is waiting for one. A page worker that finds
+ * none keeps trying while its row has pages left.
+ */
+public final class WorkBudget {
+
+    // Fair, so queued items are served before page workers asking for spare permits
+    private static final Semaphore PERMITS = new Semaphore(Config.maxWorkers, true);
+
+    // Pause between two tries of a page worker waiting for a spare permit
+    private static final long BORROW_BACKOFF_MILLIS = 50;
+
+    private WorkBudget() {}
+
+    /**
+     * Blocks until a permit is free. Used once per item.
+     */
+    public static void acquire() throws InterruptedException {
+        PERMITS.acquire();
+    }
+
+    /**
+     * Takes a spare permit without waiting. A zero timeout is used instead of the
+     * plain tryAcquire() so waiting items keep their place in the queue.
+     *
+     * @return true if a permit was taken and must be released later
+     */
+    public static boolean tryAcquire() {
+        try {
+            return PERMITS.tryAcquire(0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Takes a spare permit, waiting for one while {@code wanted} holds. Every try is a
+     * {@link #tryAcquire()}, with a short pause in between, so items queued for a permit
+     * still go first, and permits freed by finished items are picked up later on.
+     *
+     * @return true if a permit was taken and must be released later; false once no
+     * longer wanted or when interrupted
+     */
+    public static boolean borrow(BooleanSupplier wanted) {
+        while (wanted.getAsBoolean()) {
+            if (tryAcquire()) {
+                return true;
+            }
+            try {
+                Thread.sleep(BORROW_BACKOFF_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public static void release() {
+        PERMITS.release();
+    }
+}
@@ -0,0 +1,20 @@
+package pdfproject.core.diff;
+
+import pdfproject.constants.DiffAlgorithm;
+
+/**
+ * Computes a shortest edit script between two word sequences,
+ * given as token ids from a {@link TokenDictionary}.
+ */
+public interface DiffEngine {
+
+    void diff(int[] words1, int[] words2, EditSink sink);
+
+    static DiffEngine of(DiffAlgorithm algorithm) {
+        return switch (algorithm) {
+            case MYERS -> new MyersDiffEngine();
+            case LINEAR -> new LinearSpaceDiffEngine();
+            default -> new LcsDiffEngine();
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package pdfproject.core.diff;
+
+/**
+ * Receives an edit script in order from the start of both sequences to the end.
+ * Indexes are positions in the sequences given to {@link DiffEngine#diff}.
+ */
+public interface EditSink {
+    void equal(int index1, int index2);
+
+    void delete(int index1);
+
+    void insert(int index2);
+}
@@ -0,0 +1,51 @@
+package pdfproject.core.diff;
+
+/**
+ * The original longest-common-subsequence table. Keeps a full (m+1)·(n+1) table,
+ * so it is only suitable for pages of moderate size.
+ */
+public class LcsDiffEngine implements DiffEngine {
+
+    @Override
+    public void diff(int[] words1, int[] words2, EditSink sink) {
+        int m = words1.length;
+        int n = words2.length;
+
+        int[][] LCSuffix = new int[m + 1][n + 1];
+        for (int i = 1; i <= m; i++) {
+            for (int j = 1; j <= n; j++) {
+                if (words1[m - i] == words2[n - j]) {
+                    LCSuffix[i][j] = LCSuffix[i - 1][j - 1] + 1;
+                } else {
+                    LCSuffix[i][j] = Math.max(LCSuffix[i - 1][j], LCSuffix[i][j - 1]);
+                }
+            }
+        }
+
+        int i = m;
+        int j = n;
+        while (i > 0 && j > 0) {
+            if (words1[m - i] == words2[n - j]) {
+                sink.equal(m - i, n - j);
+                i--;
+                j--;
+            } else if (LCSuffix[i - 1][j] > LCSuffix[i][j - 1]) {
+                sink.delete(m - i);
+                i--;
+            } else {
+                sink.insert(n - j);
+                j--;
+            }
+        }
+
+        while (i > 0) {
+            sink.delete(m - i);
+            i--;
+        }
+
+        while (j > 0) {
+            sink.insert(n - j);
+            j--;
+        }
+    }
+}
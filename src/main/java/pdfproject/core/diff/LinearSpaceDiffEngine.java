@@ -0,0 +1,118 @@
+package pdfproject.core.diff;
+
+/**
+ * Linear-space variant of Myers' algorithm (section 4b of the paper): find the middle
+ * snake of the optimal path, then solve the halves before and after it recursively,
+ * in the spirit of Hirschberg's LCS. Memory stays O(m+n) whatever the number of edits.
+ */
+public class LinearSpaceDiffEngine implements DiffEngine {
+
+    @Override
+    public void diff(int[] words1, int[] words2, EditSink sink) {
+        // Diagonals -(D+1) .. D+1 with D = ceil((m+n)/2), reused by every recursion level
+        int size = words1.length + words2.length + 5;
+        int[] forward = new int[size];
+        int[] backward = new int[size];
+        diff(words1, 0, words1.length, words2, 0, words2.length, forward, backward, sink);
+    }
+
+    private void diff(int[] a, int aLo, int aHi, int[] b, int bLo, int bHi,
+                      int[] forward, int[] backward, EditSink sink) {
+
+        while (aLo < aHi && bLo < bHi && a[aLo] == b[bLo]) {
+            sink.equal(aLo++, bLo++);
+        }
+
+        int suffix = 0;
+        while (aLo < aHi - suffix && bLo < bHi - suffix
+                && a[aHi - 1 - suffix] == b[bHi - 1 - suffix]) {
+            suffix++;
+        }
+        aHi -= suffix;
+        bHi -= suffix;
+
+        if (aLo == aHi) {
+            for (int j = bLo; j < bHi; j++) sink.insert(j);
+        } else if (bLo == bHi) {
+            for (int i = aLo; i < aHi; i++) sink.delete(i);
+        } else {
+            int[] snake = middleSnake(a, aLo, aHi, b, bLo, bHi, forward, backward);
+            int startX = aLo + snake[0];
+            int startY = bLo + snake[1];
+            int endX = aLo + snake[2];
+            int endY = bLo + snake[3];
+
+            diff(a, aLo, startX, b, bLo, startY, forward, backward, sink);
+            for (int i = startX, j = startY; i < endX; i++, j++) {
+                sink.equal(i, j);
+            }
+            diff(a, endX, aHi, b, endY, bHi, forward, backward, sink);
+        }
+
+        for (int s = 0; s < suffix; s++) {
+            sink.equal(aHi + s, bHi + s);
+        }
+    }
+
+    /**
+     * Runs the forward and reverse searches until they overlap.
+     *
+     * @return {startX, startY, endX, endY} of the middle snake, relative to aLo/bLo
+     */
+    private int[] middleSnake(int[] a, int aLo, int aHi, int[] b, int bLo, int bHi,
+                              int[] forward, int[] backward) {
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        int delta = n - m;
+        boolean odd = (delta & 1) != 0;
+        int maxD = (n + m + 1) / 2;
+        int offset = maxD + 1;
+
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+
+        for (int d = 0; d <= maxD; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1]))
+                        ? forward[offset + k + 1]
+                        : forward[offset + k - 1] + 1;
+                int y = x - k;
+                int x0 = x;
+                int y0 = y;
+                while (x < n && y < m && a[aLo + x] == b[bLo + y]) {
+                    x++;
+                    y++;
+                }
+                forward[offset + k] = x;
+
+                int reverseK = delta - k;
+                if (odd && reverseK >= -(d - 1) && reverseK <= d - 1
+                        && x + backward[offset + reverseK] >= n) {
+                    return new int[]{x0, y0, x, y};
+                }
+            }
+
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1]))
+                        ? backward[offset + k + 1]
+                        : backward[offset + k - 1] + 1;
+                int y = x - k;
+                int x0 = x;
+                int y0 = y;
+                while (x < n && y < m && a[aHi - 1 - x] == b[bHi - 1 - y]) {
+                    x++;
+                    y++;
+                }
+                backward[offset + k] = x;
+
+                int forwardK = delta - k;
+                if (!odd && forwardK >= -d && forwardK <= d
+                        && x + forward[offset + forwardK] >= n) {
+                    return new int[]{n - x, m - y, n - x0, m - y0};
+                }
+            }
+        }
+
+        throw new IllegalStateException("No middle snake found");
+    }
+}
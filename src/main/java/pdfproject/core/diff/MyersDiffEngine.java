@@ -0,0 +1,121 @@
+package pdfproject.core.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Myers' greedy O((m+n)·D) algorithm, where D is the number of added plus deleted words.
+ * The forward pass keeps one slice of the V array per step to walk the path back,
+ * which costs O(D²) memory. Once that would exceed {@link #MAX_TRACE_INTS} the
+ * work is handed to {@link LinearSpaceDiffEngine}.
+ */
+public class MyersDiffEngine implements DiffEngine {
+
+    // 4M ints = 16 MB of trace, reached at roughly D = 2000
+    private static final long MAX_TRACE_INTS = 4L << 20;
+
+    private static final byte EQUAL = 0;
+    private static final byte DELETE = 1;
+    private static final byte INSERT = 2;
+
+    @Override
+    public void diff(int[] words1, int[] words2, EditSink sink) {
+        int n = words1.length;
+        int m = words2.length;
+        int max = n + m;
+        int offset = max + 1;
+
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+        long traceInts = 0;
+
+        for (int d = 0; d <= max; d++) {
+            traceInts += 2L * d + 3;
+            if (traceInts > MAX_TRACE_INTS) {
+                new LinearSpaceDiffEngine().diff(words1, words2, sink);
+                return;
+            }
+
+            // Diagonals -d-1 .. d+1 are all the backtrack step d can look at
+            int[] slice = new int[2 * d + 3];
+            System.arraycopy(v, offset - d - 1, slice, 0, slice.length);
+            trace.add(slice);
+
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+
+                while (x < n && y < m && words1[x] == words2[y]) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+
+                if (x >= n && y >= m) {
+                    replay(backtrack(trace, n, m, d), sink);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the trace from (n, m) back to (0, 0) and returns the moves in reverse order,
+     * as triples of (move, index1, index2).
+     */
+    private int[] backtrack(List<int[]> trace, int n, int m, int dMax) {
+        int[] moves = new int[3 * (n + m)];
+        int count = 0;
+
+        int x = n;
+        int y = m;
+        for (int d = dMax; d >= 0; d--) {
+            int[] v = trace.get(d);
+            int base = d + 1; // slice index of diagonal 0
+            int k = x - y;
+
+            int prevK = (k == -d || (k != d && v[base + k - 1] < v[base + k + 1])) ? k + 1 : k - 1;
+            int prevX = v[base + prevK];
+            int prevY = prevX - prevK;
+
+            while (x > prevX && y > prevY) {
+                x--;
+                y--;
+                moves[count++] = EQUAL;
+                moves[count++] = x;
+                moves[count++] = y;
+            }
+
+            if (d > 0) {
+                if (x == prevX) {
+                    moves[count++] = INSERT;
+                    moves[count++] = prevX;
+                    moves[count++] = prevY;
+                } else {
+                    moves[count++] = DELETE;
+                    moves[count++] = prevX;
+                    moves[count++] = prevY;
+                }
+            }
+
+            x = prevX;
+            y = prevY;
+        }
+
+        int[] result = new int[count];
+        System.arraycopy(moves, 0, result, 0, count);
+        return result;
+    }
+
+    private void replay(int[] moves, EditSink sink) {
+        for (int p = moves.length - 3; p >= 0; p -= 3) {
+            switch (moves[p]) {
+                case EQUAL -> sink.equal(moves[p + 1], moves[p + 2]);
+                case DELETE -> sink.delete(moves[p + 1]);
+                default -> sink.insert(moves[p + 2]);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package pdfproject.core.diff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps every distinct word of one page pair to a small int, so the diff engines
+ * compare ints instead of strings. Use one dictionary for both sides of a page.
+ */
+public class TokenDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    public int id(String token) {
+        Integer id = ids.get(token);
+        if (id == null) {
+            id = ids.size();
+            ids.put(token, id);
+        }
+        return id;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
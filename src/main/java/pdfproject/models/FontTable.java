@@ -0,0 +1,72 @@
+package pdfproject.models;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import pdfproject.constants.FontStyle;
+import pdfproject.utils.WordUtil;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Fonts seen while extracting the text of a row, numbered in order of appearance.
+ * Each font is resolved once: cleaned name, style, and a face id shared by all fonts
+ * with the same name and style, so glyphs compare fonts with one int comparison.
+ * Shared by both documents of the row. Reads take no lock.
+ */
+public class FontTable {
+
+    // Id of a glyph without a font; such glyphs never match any other
+    public static final int NO_FONT = -1;
+
+    private final Map<PDFont, Integer> ids = new IdentityHashMap<>();
+    private final Map<Face, Integer> faceIds = new HashMap<>();
+
+    // Indexed by font id; replaced, never changed, when a font is added
+    private volatile Font[] fonts = new Font[0];
+
+    public synchronized int id(PDFont font) {
+        if (font == null) {
+            return NO_FONT;
+        }
+
+        Integer id = ids.get(font);
+        if (id == null) {
+            Face face = new Face(WordUtil.getCleanFontName(font.getName()), WordUtil.getFontStyle(font));
+            int faceId = faceIds.computeIfAbsent(face, f -> faceIds.size());
+
+            Font[] grown = Arrays.copyOf(fonts, fonts.length + 1);
+            grown[fonts.length] = new Font(face, faceId);
+            id = fonts.length;
+            fonts = grown;
+            ids.put(font, id);
+        }
+        return id;
+    }
+
+    /**
+     * Cleaned font name, see {@link WordUtil#getCleanFontName}. Null for {@link #NO_FONT}.
+     */
+    public String cleanName(int id) {
+        return id == NO_FONT ? null : fonts[id].face.cleanName;
+    }
+
+    /**
+     * Style, see {@link WordUtil#getFontStyle}. Regular for {@link #NO_FONT}.
+     */
+    public FontStyle style(int id) {
+        return id == NO_FONT ? FontStyle.REGULAR : fonts[id].face.style;
+    }
+
+    /**
+     * Same value for fonts with equal cleaned name and style. {@link #NO_FONT} for no font.
+     */
+    public int faceId(int id) {
+        return id == NO_FONT ? NO_FONT : fonts[id].faceId;
+    }
+
+    private record Face(String cleanName, FontStyle style) {}
+
+    private record Font(Face face, int faceId) {}
+}
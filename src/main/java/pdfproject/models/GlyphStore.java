@@ -0,0 +1,126 @@
+package pdfproject.models;
+
+import org.apache.pdfbox.text.TextPosition;
+import pdfproject.constants.FontStyle;
+
+import java.util.Arrays;
+
+/**
+ * Glyphs of one page as parallel primitive arrays, one entry per character of the
+ * extracted words. Keeps only what the diff and the report read from a TextPosition,
+ * so the TextPositions themselves can be dropped after extraction.
+ * Filled by one thread, read-only afterwards.
+ */
+public class GlyphStore {
+
+    private final FontTable fonts;
+    private float[] x;
+    private float[] y;
+    private float[] width;
+    private float[] height;
+    private int[] fontId;
+    private int[] size;
+    private int count;
+
+    public GlyphStore(FontTable fonts, int capacity) {
+        this.fonts = fonts;
+        int initial = Math.max(16, capacity);
+        this.x = new float[initial];
+        this.y = new float[initial];
+        this.width = new float[initial];
+        this.height = new float[initial];
+        this.fontId = new int[initial];
+        this.size = new int[initial];
+    }
+
+    /**
+     * Appends a glyph and returns its index.
+     */
+    public int add(TextPosition tp) {
+        if (count == x.length) {
+            grow(count * 2);
+        }
+        x[count] = tp.getX();
+        y[count] = tp.getY();
+        width[count] = tp.getWidth();
+        height[count] = tp.getHeight();
+        fontId[count] = fonts.id(tp.getFont());
+        size[count] = Math.round(tp.getFontSize());
+        return count++;
+    }
+
+    /**
+     * Drops the unused capacity once the page is complete.
+     */
+    public void trimToSize() {
+        grow(count);
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        fontId = Arrays.copyOf(fontId, capacity);
+        size = Arrays.copyOf(size, capacity);
+    }
+
+    /**
+     * True when both stores hold as many glyphs, each at the same x and y.
+     */
+    public boolean samePositions(GlyphStore other) {
+        return count == other.count
+                && Arrays.equals(x, 0, count, other.x, 0, count)
+                && Arrays.equals(y, 0, count, other.y, 0, count);
+    }
+
+    public FontTable getFonts() {
+        return fonts;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    public float getWidth(int i) {
+        return width[i];
+    }
+
+    public float getHeight(int i) {
+        return height[i];
+    }
+
+    public int getFontId(int i) {
+        return fontId[i];
+    }
+
+    /**
+     * Font size rounded to whole points.
+     */
+    public int getFontSize(int i) {
+        return size[i];
+    }
+
+    public String getFontName(int i) {
+        return fonts.cleanName(fontId[i]);
+    }
+
+    public FontStyle getFontStyle(int i) {
+        return fonts.style(fontId[i]);
+    }
+
+    /**
+     * See {@link FontTable#faceId}.
+     */
+    public int getFaceId(int i) {
+        return fonts.faceId(fontId[i]);
+    }
+}
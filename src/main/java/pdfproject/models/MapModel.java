@@ -10,6 +10,7 @@ import java.util.stream.Collectors;
 public class MapModel {
     private final List<List<String>> alignmentImages;
     private final List<List<String>> contentImages;
+    private final List<List<WordBox>> contentBoxes;
     private final List<List<Pair<String,String>>> sourceTexts;
     private final List<List<Pair<String,String>>> targetTexts;
     private final String outputImagePath;
@@ -19,6 +20,7 @@ public class MapModel {
         this.outputImagePath = outputImagePath.replace("\\", "/");
         this.alignmentImages = Collections.synchronizedList(new ArrayList<>());
         this.contentImages = Collections.synchronizedList(new ArrayList<>());
+        this.contentBoxes = Collections.synchronizedList(new ArrayList<>());
         this.sourceTexts = Collections.synchronizedList(new ArrayList<>());
         this.targetTexts = Collections.synchronizedList(new ArrayList<>());
     }
@@ -39,25 +41,30 @@ public class MapModel {
         }
     }
 
-    public void addListOfPairs(List<Pair<String,String>> pairList, boolean isSource) {
+    // Word boxes the report draws over a composed content page
+    public void addContentBoxes(List<WordBox> boxes, int index) {
+        synchronized (contentBoxes) {
+            ensureCapacity(contentBoxes, index);
+            contentBoxes.set(index, new ArrayList<>(boxes));
+        }
+    }
+
+    public void addListOfPairs(List<Pair<String,String>> pairList, boolean isSource, int index) {
         if (pairList == null) return;
 
         // Convert Pair<String,String> → List<Pair<String,String>>
         List<Pair<String,String>> copyList = new ArrayList<>(pairList);
 
-        if (isSource) {
-            synchronized (sourceTexts) {
-                sourceTexts.add(copyList);
-            }
-        } else {
-            synchronized (targetTexts) {
-                targetTexts.add(copyList);
-            }
+        // Indexed like the image rows so pages validated out of order still line up
+        List<List<Pair<String,String>>> target = isSource ? sourceTexts : targetTexts;
+        synchronized (target) {
+            ensureCapacity(target, index);
+            target.set(index, copyList);
         }
     }
 
 
-    private void ensureCapacity(List<List<String>> list, int index) {
+    private <T> void ensureCapacity(List<T> list, int index) {
         while (list.size() <= index) {
             list.add(null);
         }
@@ -81,6 +88,10 @@ public class MapModel {
         return contentImages;
     }
 
+    public List<List<WordBox>> getContentBoxes() {
+        return contentBoxes;
+    }
+
     public List<List<Pair<String, String>>> getSourceTexts() {
         return sourceTexts;
     }
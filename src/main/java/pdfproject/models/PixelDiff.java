@@ -0,0 +1,19 @@
+package pdfproject.models;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Result of a pixel comparison between two rendered pages.
+ *
+ * @param image         img1 with every differing pixel painted red
+ * @param changedPixels number of differing pixels
+ * @param regions       bounding boxes of the changed areas, top to bottom
+ */
+public record PixelDiff(BufferedImage image, long changedPixels, List<Rectangle> regions) {
+
+    public boolean hasChanges() {
+        return changedPixels > 0;
+    }
+}
@@ -0,0 +1,19 @@
+package pdfproject.models;
+
+import pdfproject.constants.Operation;
+
+import java.awt.Color;
+import java.util.Set;
+
+/**
+ * Box the report draws around a changed word, over the page image of one side.
+ * Coordinates are fractions of the page image's width and height, so a box fits the
+ * page at whatever size the report shows it.
+ *
+ * @param side       1 for the first document, 2 for the second
+ * @param operations what changed about the word
+ * @param color      colour of the box, the same as in boxed page images
+ */
+public record WordBox(int side, double x, double y, double width, double height,
+                      Set<Operation> operations, Color color) {
+}
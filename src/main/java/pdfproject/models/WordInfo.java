@@ -1,6 +1,5 @@
 package pdfproject.models;
 
-import org.apache.pdfbox.text.TextPosition;
 import pdfproject.constants.Operation;
 
 import java.awt.*;
@@ -10,17 +9,31 @@ import java.util.Set;
 
 public class WordInfo {
     private final String word;
-    private final List<TextPosition> textPositions;
-    private List<TextPosition> otherTextPositions;
+    // Glyphs glyphStart .. glyphStart + word.length() - 1 of the page, one per character
+    private final GlyphStore glyphs;
+    private final int glyphStart;
+    // Same word in the other document, set when only its fonts differ
+    private WordInfo counterpart;
     private int line = -1;
     // Store multiple operations
     private final Set<Operation> operations = EnumSet.noneOf(Operation.class);
     private Rectangle boundingBox;
     private boolean belongsToFirst = false;
+    // Built on first use, see FontInfoUtil.getFontInfoParts
     private List<FontInfoPart> fontInfoParts;
+    private String plainInfo;
 
     public void setFontInfoParts(List<FontInfoPart> parts) {
         this.fontInfoParts = parts;
+        this.plainInfo = null;
+    }
+
+    public String getPlainInfo() {
+        return plainInfo;
+    }
+
+    public void setPlainInfo(String plainInfo) {
+        this.plainInfo = plainInfo;
     }
 
     public List<FontInfoPart> getFontInfoParts() {
@@ -28,9 +41,10 @@ public class WordInfo {
     }
 
 
-    public WordInfo(String word, List<TextPosition> textPositions) {
+    public WordInfo(String word, GlyphStore glyphs, int glyphStart) {
         this.word = word;
-        this.textPositions = textPositions;
+        this.glyphs = glyphs;
+        this.glyphStart = glyphStart;
     }
 
     public int getLine() {
@@ -45,20 +59,35 @@ public class WordInfo {
         return word;
     }
 
-    public List<TextPosition> getTextPositions() {
-        return textPositions;
+    public GlyphStore getGlyphs() {
+        return glyphs;
+    }
+
+    public int getGlyphStart() {
+        return glyphStart;
+    }
+
+    public int getGlyphCount() {
+        return word.length();
+    }
+
+    /**
+     * Index in {@link #getGlyphs()} of the i-th character of the word.
+     */
+    public int glyph(int i) {
+        return glyphStart + i;
     }
 
     public float getPosition() {
-        return textPositions.get(0).getY();
+        return glyphs.getY(glyphStart);
     }
 
-    public List<TextPosition> getOtherTextPositions() {
-        return otherTextPositions;
+    public WordInfo getCounterpart() {
+        return counterpart;
     }
 
-    public void setOtherTextPositions(List<TextPosition> otherTextPositions) {
-        this.otherTextPositions = otherTextPositions;
+    public void setCounterpart(WordInfo counterpart) {
+        this.counterpart = counterpart;
     }
 
     // ========== Operations Support ==========
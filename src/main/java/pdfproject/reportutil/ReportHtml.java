@@ -1,5 +1,5 @@
 package pdfproject.reportutil;
 
 public class ReportHtml {
-    public static final String REPORT_HTML = "<!DOCTYPE html>\n<html lang=\"en\">\n\n<head>\n    <meta charset=\"UTF-8\">\n    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n    <title>Interactive Report</title>\n\n    <!-- Link to general layout styles -->\n    <style type=\"text/css\">\n/* Setting a darker shade of white for the body */\nbody {\n    background-color: #f4f4f4; /* A bit darker than white */\n    margin: 0; /* Removing default margin */\n    padding: 0;\n    height: 100vh; /* Ensure full viewport height */\n    display: flex;\n    justify-content: center;\n    align-items: center; /* Center content vertically */\n    font-family: 'Arial', sans-serif; /* Modern sans-serif font */\n}\n\n/* Container div with 95% width and 95% height of the viewport */\n.container {\n    width: 95vw; /* 95% of viewport width */\n    height: 95vh; /* 95% of viewport height */\n    background-color: #ffffff; /* White background for the div */\n    box-sizing: border-box; /* Ensure margin is inside the div */\n    display: flex;\n    justify-content: center; /* Align items horizontally */\n    align-items: center; /* Center content vertically */\n    border-radius: 15px; /* Rounded corners for a soft modern look */\n    box-shadow: 0 10px 20px rgba(0, 0, 0, 0.1); /* Subtle shadow for depth */\n    transition: box-shadow 0.3s ease; /* Smooth transition for shadow */\n}\n\n\n\n</style>\n    <!-- Link to right-content specific styles -->\n    <style type=\"text/css\">\n/* Right-side div with 90% width */\n.right-content {\n    width: 90%; /* 90% width */\n    height: 100%; /* Full height */\n    display: flex;\n    flex-direction: column; /* Stack elements vertically */\n}\n\n/* Top div */\n.top-div {\n    display: flex;\n    flex-direction: row; /* Arrange buttons horizontally */\n    justify-content: center; /* Center buttons horizontally */\n    align-items: center; /* Center buttons vertically */\n    padding: 10px 0; /* Small padding for some spacing */\n    height: auto; /* Allow height to adjust based on content */\n    width: 100%; /* Full width */\n}\n\n/* Styling only the buttons inside the top div */\n.top-div button {\n    padding: 15px 30px; /* Horizontal padding to make buttons bigger */\n    margin: 0 10px; /* Small margin between buttons */\n    font-size: 18px; /* Larger font size for readability */\n    border: none; /* Remove default border */\n    border-radius: 8px; /* Rounded corners for modern look */\n    background-color: #d3d3d3; /* Grey background color for unselected buttons */\n    color: white; /* White text color */\n    cursor: pointer; /* Pointer cursor on hover */\n    transition: background-color 0.3s ease; /* Smooth transition for background color */\n}\n\n/* Selected button style (green) */\n.top-div button.selected {\n    background-color: #28a745; /* Green background color */\n}\n\n/* Hover effect for buttons inside top div */\n.top-div button:hover {\n    background-color: #146544; /* Darker grey on hover */\n    transform: scale(.95); /* Slight scale-up effect */\n}\n\n/* Bottom div */\n.bottom-div {\n    display: flex; /* Flexbox for bottom div */\n    justify-content: center; /* Center navigation elements */\n    align-items: center; /* Center items vertically */\n    width: 100%; /* Full width */\n    padding: 10px 0; /* Small padding for some spacing */\n}\n\n/* Navigation buttons container */\n.navigation-buttons {\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    gap: 20px; /* Gap between buttons and page info */\n}\n\n/* Styling for individual navigation buttons */\n.navigation-buttons button {\n    padding: 10px 20px; /* Padding for buttons */\n    font-size: 16px; /* Font size for readability */\n    background-color: #4a90e2; /* Blue background */\n    color: white; /* White text color */\n    border: none; /* Remove border */\n    border-radius: 8px; /* Rounded corners */\n    cursor: pointer; /* Pointer cursor on hover */\n    transition: background-color 0.3s ease; /* Smooth transition */\n}\n\n/* Hover effect for navigation buttons */\n.navigation-buttons button:hover {\n    background-color: #357ab7; /* Darker blue on hover */\n}\n\n/* Styling for the page info text */\n.navigation-buttons #page-info {\n    font-size: 16px;\n    color: #333; /* Dark text color for readability */\n}\n\n/* Disabled button styles */\n.navigation-buttons button:disabled {\n    background-color: #cccccc; /* Light gray */\n    color: #666666;             /* Darker text */\n    cursor: not-allowed;\n}\n\n</style>\n    <!-- Link to middle content specific styles -->\n    <style type=\"text/css\">\n/* Middle content section */\n.middle-content {\n    flex: 1; \n    overflow-y: auto;\n    display: flex; /* Make sure middle-content itself is a flex container */\n    flex-direction: column; /* Stack content-div and alignment-div vertically */\n}\n\n\n\n\n</style>\n    <style type=\"text/css\">\n/* Content div with fixed width */\n.content-div {\n    display: flex;\n    /* Flexbox layout */\n    flex-direction: row;\n    /* Horizontal layout */\n    gap: 20px;\n    /* Space between image and report containers */\n    width: 100%;\n    /* 100% width of its parent container */\n    height: 100%;\n    /* Full height of its parent container */\n    padding: 0 10px;\n    /* <-- Only left and right */\n    box-sizing: border-box;\n    /* Includes padding and border in the width calculation */\n    overflow: hidden;\n    /* Prevents overflow if any */\n}\n\n/* Image container (2/3 width) */\n.image-container {\n    width: 66.66%;\n    /* Fixed width 2/3 of the container */\n    height: 100%;\n    /* Full height of its parent container */\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    overflow: hidden;\n}\n\n/* Image to fit in the container */\n#mainImage {\n    height: 100%;\n    /* Ensure the image fits container width */\n    max-height: 100%;\n    /* Ensure the image fits container height */\n    object-fit: contain;\n    /* Maintain aspect ratio */\n    background-color: black;\n}\n\n\n#circleImage,\n#reportCircleImage {\n    position: absolute;\n    display: none;\n    border-radius: 50%;\n    object-fit: contain;\n    pointer-events: none;\n    width: 200px;\n    height: 200px;\n    border: 2px solid rgba(255, 255, 255, 0.6);\n    box-shadow:\n        inset 0 0 10px rgba(255, 255, 255, 0.3),\n        0 4px 12px rgba(0, 0, 0, 0.25);\n    background-repeat: no-repeat;\n    background-position: center;\n    background-size: cover;\n    background-color: rgba(255, 255, 255, 0.05);\n    backdrop-filter: blur(1px);\n    transition: background-position 0.05s;\n    z-index: 1000; /* Ensure it's on top */\n}\n\n\n\n/* Report container (1/3 width) */\n.report-container {\n    width: 33.33%;\n    /* Fixed width 1/3 of the container */\n    height: 100%;\n    /* Full height of its parent container */\n    display: block;\n    justify-content: flex-start;\n    /* Align from top */\n    overflow-y: auto;\n    /* Enable vertical scrolling */\n}\n\n/* Report image */\n.report-container img {\n    width: 100%;\n    /* Image width 100% */\n    height: auto;\n    /* Maintain aspect ratio */\n    object-fit: cover;\n    /* Image fills container, maintaining aspect ratio */\n    object-position: top;\n    /* Align the image from the top */\n    max-height: none;\n    /* Ensure no height restriction */\n}\n</style>\n    <style type=\"text/css\">\n.alignment-div {\n    display: none;\n    flex-direction: column;\n    align-items: center;\n    justify-content: flex-start;\n    width: 100%;\n    height: 100%;\n    padding: 0 10px; /* <-- Only left and right */\n    box-sizing: border-box; /* Includes padding and border in the width calculation */\n    overflow: hidden;\n}\n\n\n.action-mode-buttons {\n    width: 100%;\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    gap: 15px;\n    padding: 20px 0;\n}\n\n.action-mode-buttons button {\n    padding: 10px 20px;\n    border: none;\n    border-radius: 8px;\n    background-color: #e0e0e0;\n    color: #333;\n    font-size: 16px;\n    cursor: pointer;\n    transition: background-color 0.3s ease, color 0.3s ease;\n}\n\n.action-mode-buttons button:hover {\n    background-color: #c8e6c9;\n}\n\n.action-mode-buttons button.selected {\n    background-color: #4caf50;\n    color: white;\n}\n\n.alignment-image-wrapper {\n    width: auto;\n    height: 100%;\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    background-color: #333;\n    position: relative;\n    transition: all 0.3s ease;\n}\n\n#alignmentImage {\n    width: auto;\n    height: 100%;\n    object-fit: contain;\n    display: block;\n    transition: all 0.3s ease;\n}\n\n#fullscreenBtn {\n    position: absolute;\n    width: 40px;\n    height: 40px;\n    top: 10px;\n    right: 10px;\n    color: white; /* White text */\n    font-size: 20px;\n    border: 2px solid white;\n    border-radius: 50%;\n    background-color: #4a90e2; /* Blue background */\n    cursor: pointer;\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    padding: 10px 10px 12px 10px;\n    transition: background-color 0.3s ease, transform 0.2s ease; /* Add a transform for hover effect */\n}\n\n#fullscreenBtn:hover {\n    background-color: rgba(0, 100, 0);\n}\n\n.alignment-image-wrapper.fullscreen {\n    position: fixed;\n    top: 0;\n    left: 0;\n    width: 100%;\n    height: 100%;\n    background-color: rgba(0, 0, 0, 0.9);\n    z-index: 9999;\n}\n\n.alignment-image-wrapper.fullscreen #alignmentImage {\n    width: 100%;\n    height: 100%;\n    object-fit: contain;\n}\n\n</style>\n    <style type=\"text/css\">\n/* prodigy-div.css - scoped to #prodigy-div so it won't affect other parts */\n\n/* Main prodigy wrapper */\n#prodigy-div.prodigy-div {\n    display: none;\n    flex-direction: column;\n    align-items: center;\n    justify-content: flex-start;\n    width: 100%;\n    height: 100%;\n    padding: 0 10px;\n    box-sizing: border-box;\n    overflow: hidden;\n}\n\n/* Buttons row inside prodigy */\n#prodigy-div .action-mode-buttons {\n    width: 100%;\n    display: flex;\n    justify-content: center;\n    gap: 15px;\n    padding: 20px 0;\n}\n\n#prodigy-div .action-mode-buttons button {\n    padding: 10px 20px;\n    border: none;\n    border-radius: 8px;\n    background-color: #e0e0e0;\n    color: #333;\n    font-size: 16px;\n    cursor: pointer;\n    transition: background-color 0.3s ease, color 0.3s ease;\n}\n\n#prodigy-div .action-mode-buttons button.selected {\n    background-color: #4caf50;\n    color: white;\n}\n\n/* Main area: Image left, list right */\n#prodigy-div .prodigy-container {\n    width: 100%;\n    height: 100%;\n    display: flex;\n    gap: 12px;\n    background: none !important;\n}\n\n/* Left panel: image (transparent) inside prodigy */\n#prodigy-div .image-container {\n    width: 50%;\n    height: 100%;\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    background: none !important;\n}\n\n/* Image itself inside prodigy */\n#prodigy-div #prodigyImage {\n    width: auto;\n    height: 100%;\n    object-fit: contain;\n    background: none !important;\n}\n\n/* ========================================================= */\n/* ===== Improved Report Container ONLY ==================== */\n/* ========================================================= */\n\n#prodigy-div .pairs-container {\n    width: 50%;\n    height: 100%;\n    display: flex;\n    flex-direction: column;\n\n    background: #fbfcfe;\n    color: #0b1220;\n\n    border-left: 1px solid #e6e9ef;\n    overflow-y: auto;\n    padding: 16px;\n    gap: 12px;\n    box-sizing: border-box;\n}\n\n/* Header row — now HIGHER CONTRAST */\n#prodigy-div .pairs-header {\n    display: grid;\n    grid-template-columns: 1fr 1fr;\n\n    padding: 10px 14px;\n    font-weight: 700;\n    font-size: 14px;\n\n    background: #e2e8f0;      /* MORE CONTRAST */\n    color: #1e293b;           /* darker text */\n\n    letter-spacing: 0.3px;    /* slightly sharper text */\n    border-radius: 6px;\n\n    align-items: center;\n    box-sizing: border-box;\n}\n\n/* Divider below header */\n#prodigy-div .pairs-header::after {\n    content: \"\";\n    display: block;\n    height: 1px;\n    background: #cbd5e1;\n    grid-column: 1 / -1;\n    margin-top: 8px;\n}\n\n/* List container */\n#prodigy-div .pairs-list {\n    flex: 1;\n    overflow-y: auto;     /* vertical scroll */\n    padding: 8px 2px;\n    display: flex;\n    flex-direction: column;\n    gap: 10px;\n}\n\n/* Each pair row: modern card look */\n#prodigy-div .pair-row {\n    display: grid;\n    grid-template-columns: 1fr 1fr;\n    gap: 12px;\n    padding: 12px;\n\n    border-radius: 10px;\n    background: #ffffff;\n    border: 1px solid #eef2f7;\n    box-shadow: 0 4px 10px rgba(15, 23, 42, 0.04);\n\n    align-items: start;\n    transition: transform 160ms ease, box-shadow 160ms ease;\n}\n\n/* hover effect */\n#prodigy-div .pair-row:hover {\n    transform: translateY(-4px);\n    box-shadow: 0 12px 30px rgba(15, 23, 42, 0.08);\n}\n\n/* Row content: WITH horizontal scroll inside each sentence */\n#prodigy-div .pair-row .col {\n    padding: 6px 8px;\n    color: #0b1220;\n    font-size: 14px;\n    line-height: 1.45;\n\n    white-space: nowrap;    /* keep on one line */\n    overflow-x: auto;       /* enable horizontal scroll */\n    overflow-y: hidden;\n    scrollbar-width: none;  /* Firefox hide scrollbar */\n}\n\n#prodigy-div .pair-row .col::-webkit-scrollbar {\n    height: 0px;            /* Chrome hide scrollbar */\n}\n\n/* Wrong sentence style */\n#prodigy-div .pair-row .wrong {\n    color: #b42318;\n    background: rgba(180,35,24,0.06);\n    border-radius: 8px;\n    padding: 8px;\n    border: 1px solid rgba(180,35,24,0.06);\n}\n\n/* Suggested sentence style */\n#prodigy-div .pair-row .suggested {\n    color: #057a55;\n    background: rgba(5,122,85,0.05);\n    border-radius: 8px;\n    padding: 8px;\n    border: 1px solid rgba(5,122,85,0.05);\n}\n\n/* Empty state row */\n#prodigy-div .pair-row.empty {\n    display: flex;\n    justify-content: center;\n    align-items: center;\n\n    grid-column: 1 / -1;\n    text-align: center;\n\n    color: #64748b;\n    background: #fff;\n\n    border-style: dashed;\n    border-color: #eef2f7;\n    box-shadow: none;\n}\n\n/* Subtle custom scrollbar for pairs-list (scoped) */\n#prodigy-div .pairs-list::-webkit-scrollbar { width: 10px; }\n#prodigy-div .pairs-list::-webkit-scrollbar-track { background: transparent; }\n#prodigy-div .pairs-list::-webkit-scrollbar-thumb {\n    background: linear-gradient(180deg, #e6eefc, #dfe9f6);\n    border-radius: 8px;\n    border: 2px solid transparent;\n    background-clip: padding-box;\n}\n\n/* also scope any utility columns used in header */\n#prodigy-div .pairs-header .col { padding: 0; }\n#prodigy-div .pairs-header .wrong-col,\n#prodigy-div .pairs-header .suggested-col { font-weight: 700; font-size: 13px; }\n\n/* Ensure any generic selectors used here do not leak out */\n#prodigy-div .col { box-sizing: border-box; }\n\n</style>\n    <!-- Link to sidebar specific styles -->\n    <style type=\"text/css\">\n/* Sidebar with 12% width, blue background, and matching rounded corners */\n.sidebar {\n    width: 12%; /* Increased to 12% */\n    background-color: #4a90e2;\n    height: 100vh; /* Full viewport height */\n    border-top-left-radius: 15px;\n    border-bottom-left-radius: 15px;\n    padding: 10px;\n    box-sizing: border-box;\n    display: flex;\n    flex-direction: column;\n    overflow-x: auto; /* Allow horizontal scroll */\n}\n\n/* Header text */\n.sidebar-header {\n    font-size: 24px;\n    font-weight: bold;\n    color: white;\n    margin-bottom: 20px;\n    text-align: center;\n}\n\n/* Sidebar items container (scrollable) */\n.sidebar-items {\n    overflow-y: auto;\n    overflow-x: auto; /* Allow horizontal scroll for long items */\n    max-height: calc(100% - 80px);\n    padding-right: 5px; /* Optional: spacing for scroll bar */\n}\n\n/* Sidebar items */\n.sidebar-item {\n    width: 100%; /* Full width inside sidebar */\n    min-width: max-content; /* Ensures the button fits the text */\n    margin: 10px 0;\n    padding: 15px 20px;\n    background-color: #d3d3d3;\n    color: black;\n    font-size: 12px;\n    font-weight: bold;\n    border-radius: 8px;\n    cursor: pointer;\n    transition: background-color 0.3s ease, transform 0.2s ease;\n    text-align: center;\n\n    white-space: nowrap; /* Prevent line wrapping */\n    overflow: visible; /* Allow overflow */\n    text-overflow: unset; /* No ellipsis */\n}\n\n/* Hover effect for sidebar items */\n.sidebar-item:hover {\n    background-color: #b0b0b0;\n    transform: scale(0.95);\n}\n\n/* Active item style */\n.sidebar-item.active {\n    background-color: #3cb371;\n    color: white;\n}\n\n</style>\n</head>\n\n<body>\n    <div class=\"container\">\n        <!-- Sidebar on the left with blue background -->\n        <div class=\"sidebar\">\n            <div class=\"sidebar-header\">Items</div>\n            <div id=\"sidebar-items\" class=\"sidebar-items\">\n            </div>\n        </div>\n\n        <!-- Right-side content container -->\n        <div class=\"right-content\">\n            <!-- Top div with buttons -->\n            <div class=\"top-div\">\n                <button class=\"selected\" id=\"content-validation-btn\">Content Validation</button>\n                <button id=\"alignment-validation-btn\">Alignment Validation</button>\n                <button id=\"prodigy-validation-btn\">Prodigy Validation</button>\n            </div>\n\n            <!-- Middle content section -->\n            <div class=\"middle-content\">\n                <!-- Content Validation div -->\n                <div class=\"content-div\" id=\"content-div\">\n                    <div class=\"image-container\">\n                        <img id=\"mainImage\" src=\"\" alt=\"Main Image\" />\n                        <img id=\"circleImage\" />\n                    </div>\n\n                    <div class=\"report-container\">\n                        <img id=\"reportImage\" src=\"\" alt=\"Report Image\" />\n                        <img id=\"reportCircleImage\" />\n                    </div>\n                </div>\n\n                <!-- Alignment Validation div -->\n                <div class=\"alignment-div\" id=\"alignment-div\">\n                    <div class=\"action-mode-buttons\" id=\"actionModeButtons\">\n                        <button id=\"pressHoldBtn\" class=\"selected\">Press and Hold</button>\n                        <button id=\"highlightBtn\">Highlight</button>\n                    </div>\n                    \n                    <div class=\"alignment-image-wrapper\">\n                        <img id=\"alignmentImage\" src=\"\" />\n                        <button id=\"fullscreenBtn\" title=\"Fullscreen\">⛶</button>\n                    </div>\n                </div>\n\n                <div class=\"prodigy-div\" id=\"prodigy-div\">\n                    <div class=\"action-mode-buttons\" id=\"prodigyModeButtons\">\n                        <button id=\"prodigySourceBtn\" class=\"selected\">Source</button>\n                        <button id=\"prodigyTargetBtn\">Target</button>\n                    </div>\n\n                    <div class=\"prodigy-container\">\n\n                        <!-- LEFT: Image -->\n                        <div class=\"image-container\">\n                            <img id=\"prodigyImage\" src=\"\" alt=\"Prodigy Image\" />\n                        </div>\n\n                        <!-- RIGHT: Sentence list (Wrong | Suggested) -->\n                        <div class=\"pairs-container\">\n                            <div class=\"pairs-header\">\n                                <div class=\"col wrong-col\">Wrong Sentence</div>\n                                <div class=\"col suggested-col\">Suggested Sentence</div>\n                            </div>\n\n                            <div id=\"pairsList\" class=\"pairs-list\">\n                                <!-- JS will append rows like:\n                                <div class=\"pair-row\">\n                                    <div class=\"col wrong\">text...</div>\n                                    <div class=\"col suggested\">text...</div>\n                                </div>\n                                -->\n                            </div>\n                        </div>\n                    </div>\n                </div>\n\n\n\n\n            </div>\n\n            <!-- Bottom div with navigation buttons -->\n            <div class=\"bottom-div\">\n                <div class=\"navigation-buttons\">\n                    <button id=\"prev-page\" disabled>Previous</button>\n                    <span id=\"page-info\">Page 1 of 1</span>\n                    <button id=\"next-page\" disabled>Next</button>\n                </div>\n            </div>\n        </div>\n    </div>\n\n    <!-- Link to script files -->\n    <script src=\"data-map.js\"></script>\n    <script type=\"text/javascript\">\n// Buttons\nconst contentValidationBtn = document.getElementById('content-validation-btn');\nconst alignmentValidationBtn = document.getElementById('alignment-validation-btn');\nconst prodigyValidationBtn = document.getElementById('prodigy-validation-btn');\n\n// Sections\nconst contentDiv = document.getElementById('content-div');\nconst alignmentDiv = document.getElementById('alignment-div');\nconst prodigyDiv = document.getElementById('prodigy-div');\n\n// Helper to switch tabs\nfunction activateTab(activeBtn, ...inactiveBtns) {\n    activeBtn.classList.add('selected');\n    inactiveBtns.forEach(btn => btn.classList.remove('selected'));\n}\n\n// Show Content Validation\ncontentValidationBtn.addEventListener('click', () => {\n    contentDiv.style.display = 'flex';\n    alignmentDiv.style.display = 'none';\n    prodigyDiv.style.display = 'none';\n\n    activateTab(contentValidationBtn, alignmentValidationBtn, prodigyValidationBtn);\n\n    updateImageProperties(); // existing function\n});\n\n// Show Alignment Validation\nalignmentValidationBtn.addEventListener('click', () => {\n    alignmentDiv.style.display = 'flex';\n    contentDiv.style.display = 'none';\n    prodigyDiv.style.display = 'none';\n\n    activateTab(alignmentValidationBtn, contentValidationBtn, prodigyValidationBtn);\n});\n\n// Show Prodigy Validation\nprodigyValidationBtn.addEventListener('click', () => {\n    prodigyDiv.style.display = 'flex';\n    contentDiv.style.display = 'none';\n    alignmentDiv.style.display = 'none';\n\n    activateTab(prodigyValidationBtn, contentValidationBtn, alignmentValidationBtn);\n\n    // TODO: update prodigy image if needed\n});\n\n</script>\n    <script type=\"text/javascript\">\n// main.js (or wherever you are putting this)\n\n// Assuming itemImageMap is already available in the scope\n\nlet currentSet = {};\nlet currentPageIndex = 0; // numeric map key of the current set\nlet totalPages = 0;\nlet currentPage = 1;  // Reset currentPage to 1\n\n// Function to create sidebar items dynamically\nfunction createSidebarItems() {\n    const sidebarItemsContainer = document.getElementById('sidebar-items');\n    if (!sidebarItemsContainer) return;\n\n    sidebarItemsContainer.innerHTML = ''; // clear any existing items\n\n    // Iterate through the map and create items\n    itemImageMap.forEach((value, key) => {\n        const itemElement = document.createElement('div');\n        itemElement.classList.add('sidebar-item');\n        // Use numeric key in id (stringified). Use name from the value.\n        const safeKeyStr = String(key).toLowerCase().replace(/\\s+/g, '-').replace(/[^a-z0-9\\-]/g, '');\n        itemElement.id = `item-${safeKeyStr}`;\n        // Display name from the value object; show key index to disambiguate if needed\n        const displayName = value && value.name ? value.name : String(key);\n        itemElement.textContent = `${displayName}`;\n\n        // store the numeric key on the element so we can retrieve it reliably\n        itemElement.dataset.key = String(key);\n\n        // Add event listener for item selection\n        itemElement.addEventListener('click', () => {\n            // pass numeric key (convert from dataset to Number)\n            selectItem(Number(itemElement.dataset.key), itemElement);\n        });\n\n        sidebarItemsContainer.appendChild(itemElement);\n    });\n\n    // Set the first item as active by default (use data-key)\n    const firstItem = sidebarItemsContainer.querySelector('.sidebar-item');\n    if (firstItem) {\n        const firstKey = Number(firstItem.dataset.key || 0);\n        selectItem(firstKey, firstItem);\n    }\n}\n\n// Function to handle item selection\nfunction selectItem(key, itemElement) {\n    // Remove active class from all sidebar items\n    document.querySelectorAll('.sidebar-item').forEach(i => i.classList.remove('active'));\n\n    // Add active class to the clicked item (if provided)\n    if (itemElement) itemElement.classList.add('active');\n    else {\n        const el = document.querySelector(`.sidebar-item[data-key=\"${String(key)}\"]`);\n        if (el) el.classList.add('active');\n    }\n\n    // Reset currentPage to 1\n    currentPage = 1;\n\n    // Store numeric index of current set\n    currentPageIndex = key;\n\n    // Get the current set from the clicked item's numeric key\n    currentSet = itemImageMap.get(key);\n\n    if (!currentSet) {\n        console.warn(`No item found in itemImageMap for key: ${key}`);\n        totalPages = 0;\n        updateNavigation();\n        return;\n    }\n\n    // Calculate totalPages based on validationImages length (safe check)\n    totalPages = Array.isArray(currentSet.validationImages) ? currentSet.validationImages.length : 0;\n\n    // Update navigation buttons and page info\n    updateNavigation();\n\n    // (Optional) Display alert with current set details\n    const displayName = currentSet.name || String(key);\n    console.log(`Item: ${displayName} (key=${key}), Total Pages: ${totalPages}, Current Page: ${currentPage}`);\n}\n\n// Call the function to populate the sidebar after the DOM has loaded\ndocument.addEventListener('DOMContentLoaded', function(){\n    createSidebarItems();\n});\n\n</script>\n    <script type=\"text/javascript\">\n// Flag to track if \"Press and Hold\" is selected\nlet isPressAndHoldSelected = true; // Assume true initially (or set based on default state)\n\n// Get all buttons inside the action-mode-buttons container\nconst actionButtons = document.querySelectorAll('.action-mode-buttons button');\n\n// Add click event listener to each button\nactionButtons.forEach(button => {\n    button.addEventListener('click', () => {\n        // Remove 'selected' class from all buttons\n        actionButtons.forEach(btn => btn.classList.remove('selected'));\n\n        // Add 'selected' class to the clicked button\n        button.classList.add('selected');\n\n        // Update flag based on the selected button\n        if (button.id === 'pressHoldBtn') {\n            isPressAndHoldSelected = true; // \"Press and Hold\" is selected\n        } else if (button.id === 'highlightBtn') {\n            isPressAndHoldSelected = false; // \"Highlight\" is selected\n        }\n\n        // Update the alignment image when the action mode changes\n        updateAlignmentImage(currentSet, currentPage);\n    });\n});\n\n// Function to get the alignment image for the current page based on the flag\nfunction getAlignmentImage(currentSet, currentPage) {\n    // Ensure we are not trying to access an out-of-bounds index\n    const alignmentImages = currentSet.alignmentImages[currentPage - 1];\n\n    // Check if the alignment image exists for the given page\n    if (alignmentImages && alignmentImages.length > 2) {\n        // Use the flag to return the correct alignment image\n        return alignmentImages[isPressAndHoldSelected ? 0 : 2]; // Return 0th image if flag is true, else 1st\n    } else {\n        console.warn(`No alignment image found for page ${currentPage}`);\n        return null;\n    }\n}\n\n// Function to update the alignment image\nfunction updateAlignmentImage(currentSet, currentPage) {\n    const alignmentImageWrapper = document.querySelector('.alignment-image-wrapper');\n    const alignmentImage = document.getElementById('alignmentImage');\n\n    if (alignmentImageWrapper && alignmentImage) {\n        const currentAlignmentImage = getAlignmentImage(currentSet, currentPage);\n\n        if (currentAlignmentImage) {\n            alignmentImage.src = currentAlignmentImage;\n        } else {\n            alignmentImage.src = null;\n            console.warn(`No alignment image found for page ${currentPage}`);\n        }\n    }\n}\n\n// Handle press-and-hold toggle for alignment image\nconst alignmentImage = document.getElementById('alignmentImage');\n\n// Track whether the mouse is currently pressed\nlet isMousePressed = false;\n\n// Add mousedown and mouseup events to handle press and hold\nalignmentImage.addEventListener('mousedown', () => {\n    if (isPressAndHoldSelected) {\n        isMousePressed = true;\n        // Change the image to the second one when the mouse is pressed down\n        const alignmentImages = currentSet.alignmentImages[currentPage - 1];\n        if (alignmentImages && alignmentImages.length > 1) {\n            alignmentImage.src = alignmentImages[1]; // Show the second image\n        }\n    }\n});\n\nalignmentImage.addEventListener('mouseup', () => {\n    if (isPressAndHoldSelected && isMousePressed) {\n        isMousePressed = false;\n        // Revert back to the first image when the mouse is released\n        const alignmentImages = currentSet.alignmentImages[currentPage - 1];\n        if (alignmentImages && alignmentImages.length > 1) {\n            alignmentImage.src = alignmentImages[0]; // Show the first image\n        }\n    }\n});\n\nalignmentImage.addEventListener('mouseleave', () => {\n    if (isMousePressed) {\n        // Reset the image if the mouse leaves the alignmentImage while pressed\n        isMousePressed = false;\n        const alignmentImages = currentSet.alignmentImages[currentPage - 1];\n        if (alignmentImages && alignmentImages.length > 1) {\n            alignmentImage.src = alignmentImages[0]; // Revert to the first image\n        }\n    }\n});\n\n</script>\n    <script type=\"text/javascript\">\n// prodigy.js\n// Renders the prodigy image for the current page and wires Source/Target buttons.\n\n// Flag for Source vs Target selection\nlet isSourceSelected = true; // default\n\n// Buttons inside the prodigy action-mode-buttons area\nconst prodigyActionButtons = document.querySelectorAll('#prodigy-div .action-mode-buttons button');\n\n// The prodigy image element in the DOM\nconst prodigyImageEl = document.getElementById('prodigyImage');\n\n// The pairs list container (right panel)\nconst pairsListEl = document.getElementById('pairsList');\n\n/**\n * Utility: get the page entry object for currentSet/currentPage\n * Expected shape per page:\n * {\n *   source: { image: \"...\", pairs: [ [src, tgt], ... ] },\n *   target: { image: \"...\", pairs: [ [src, tgt], ... ] }\n * }\n */\nfunction getProdigyPageEntry(currentSet, currentPage) {\n    if (!currentSet || !Array.isArray(currentSet.prodigyValidation)) return null;\n    const pageIndex = (typeof currentPage === 'number' && currentPage > 0) ? currentPage - 1 : 0;\n    if (pageIndex < 0 || pageIndex >= currentSet.prodigyValidation.length) return null;\n    return currentSet.prodigyValidation[pageIndex] || null;\n}\n\n/**\n * Get the prodigy image path for the current set & page.\n * Returns the source.image if isSourceSelected === true, otherwise target.image.\n *\n * @param {Object} currentSet\n * @param {number} currentPage\n * @returns {string|null}\n */\nfunction getProdigyImagePath(currentSet, currentPage) {\n    const pageEntry = getProdigyPageEntry(currentSet, currentPage);\n    if (!pageEntry) {\n        console.warn('getProdigyImagePath: pageEntry not found');\n        return null;\n    }\n\n    // Expect pageEntry.source and pageEntry.target to exist\n    if (isSourceSelected) {\n        return (pageEntry.source && pageEntry.source.image) ? pageEntry.source.image : null;\n    } else {\n        return (pageEntry.target && pageEntry.target.image) ? pageEntry.target.image : null;\n    }\n}\n\n/**\n * Returns the currently selected side's pairs for the current page:\n * e.g. [ [srcSentence, tgtSentence], ... ]\n * If not found, returns an empty array.\n *\n * @param {Object} currentSet\n * @param {number} currentPage\n * @returns {Array}\n */\nfunction getCurrentProdigyPairs(currentSet, currentPage) {\n    const pageEntry = getProdigyPageEntry(currentSet, currentPage);\n    if (!pageEntry) return [];\n    const side = isSourceSelected ? pageEntry.source : pageEntry.target;\n    if (!side || !Array.isArray(side.pairs)) return [];\n    return side.pairs;\n}\n\n/**\n * Dispatch a custom event 'prodigyPairsChanged' with detail { pairs, side } so UI can update.\n *\n * @param {Array} pairs\n */\nfunction dispatchProdigyPairsChanged(pairs) {\n    const ev = new CustomEvent('prodigyPairsChanged', {\n        detail: {\n            pairs,\n            side: isSourceSelected ? 'source' : 'target'\n        }\n    });\n    document.dispatchEvent(ev);\n}\n\n/**\n * Render the pairs into the #pairsList container.\n * Each row: .pair-row -> two .col elements (.wrong and .suggested)\n *\n * Uses textContent to avoid HTML injection.\n *\n * @param {Array} pairs\n */\nfunction renderProdigyPairs(pairs) {\n    if (!pairsListEl) return;\n\n    // Clear existing\n    pairsListEl.innerHTML = '';\n\n    if (!Array.isArray(pairs) || pairs.length === 0) {\n        // Optionally show an empty state\n        const empty = document.createElement('div');\n        empty.className = 'pair-row';\n        const left = document.createElement('div');\n        left.className = 'col wrong';\n        left.textContent = 'No sentences';\n        const right = document.createElement('div');\n        right.className = 'col suggested';\n        right.textContent = '';\n        empty.appendChild(left);\n        empty.appendChild(right);\n        pairsListEl.appendChild(empty);\n        return;\n    }\n\n    // Append rows\n    pairs.forEach(pair => {\n        // pair may be [wrong, suggested] — be defensive\n        const wrongText = (Array.isArray(pair) && pair.length > 0 && typeof pair[0] === 'string') ? pair[0] : '';\n        const suggestedText = (Array.isArray(pair) && pair.length > 1 && typeof pair[1] === 'string') ? pair[1] : '';\n\n        const row = document.createElement('div');\n        row.className = 'pair-row';\n\n        const left = document.createElement('div');\n        left.className = 'col wrong';\n        left.textContent = wrongText;\n\n        const right = document.createElement('div');\n        right.className = 'col suggested';\n        right.textContent = suggestedText;\n\n        row.appendChild(left);\n        row.appendChild(right);\n        pairsListEl.appendChild(row);\n    });\n}\n\n/**\n * Update the prodigy image element's src based on currentSet & currentPage.\n * Also dispatches prodigyPairsChanged so any consumer can re-render the list.\n *\n * @param {Object} currentSet\n * @param {number} currentPage\n */\nfunction updateProdigyImage(currentSet, currentPage) {\n    if (!prodigyImageEl) return;\n\n    if (!currentSet) {\n        prodigyImageEl.src = '';\n        const empty = [];\n        dispatchProdigyPairsChanged(empty);\n        renderProdigyPairs(empty);\n        console.info('updateProdigyImage: no currentSet provided — cleared image and pairs');\n        return;\n    }\n\n    const imagePath = getProdigyImagePath(currentSet, currentPage);\n    if (imagePath) {\n        prodigyImageEl.src = imagePath;\n    } else {\n        prodigyImageEl.src = '';\n        console.warn(`updateProdigyImage: could not find prodigy image for page ${currentPage}`);\n    }\n\n    // Notify any UI that the pairs changed (or may be same but consumer can re-render)\n    const pairs = getCurrentProdigyPairs(currentSet, currentPage);\n    dispatchProdigyPairsChanged(pairs);\n\n    // Also render directly into the pairs list\n    renderProdigyPairs(pairs);\n}\n\n// Wire up the buttons to toggle selection and update the image\nif (prodigyActionButtons && prodigyActionButtons.length) {\n    prodigyActionButtons.forEach(btn => {\n        btn.addEventListener('click', () => {\n            // remove 'selected' from all\n            prodigyActionButtons.forEach(b => b.classList.remove('selected'));\n\n            // mark clicked as selected\n            btn.classList.add('selected');\n\n            // update flag based on id or text (robust)\n            if (btn.id === 'prodigySourceBtn' || btn.textContent.trim().toLowerCase() === 'source') {\n                isSourceSelected = true;\n            } else {\n                isSourceSelected = false;\n            }\n\n            // Update the prodigy image and notify pairs changed when mode changes\n            updateProdigyImage(currentSet, currentPage);\n        });\n    });\n}\n\n// Expose the update function and helper so other scripts (sidebar/navigation) can call them\nwindow.updateProdigyImage = updateProdigyImage;\nwindow.getCurrentProdigyPairs = getCurrentProdigyPairs;\nwindow.isProdigySourceSelected = () => isSourceSelected;\n\n// Initial update on DOMContentLoaded (in case currentSet/currentPage are already set)\ndocument.addEventListener('DOMContentLoaded', () => {\n    updateProdigyImage(currentSet, currentPage);\n});\n\n</script>\n    <script type=\"text/javascript\">\n// navigation.js\n\n// Function to update page info and button states\nfunction updateNavigation() {\n    const prevButton = document.getElementById(\"prev-page\");\n    const nextButton = document.getElementById(\"next-page\");\n    const pageInfo = document.getElementById(\"page-info\");\n\n    // Update page info text\n    pageInfo.textContent = `Page ${currentPage} of ${totalPages}`;\n\n    // Enable or disable Previous button\n    prevButton.disabled = currentPage <= 1;\n    nextButton.disabled = currentPage >= totalPages;\n\n    // Also update images when navigation changes\n    updateImages();\n    updateAlignmentImage(currentSet, currentPage);\n    updateProdigyImage(currentSet, currentPage);\n}\n\n// Function to update mainImage and reportImage based on current page\nfunction updateImages() {\n    const mainImage = document.getElementById(\"mainImage\");\n    const reportImage = document.getElementById(\"reportImage\");\n\n    if (!currentSet || !currentSet.validationImages || currentSet.validationImages.length === 0) {\n        console.warn(\"No images to update.\");\n        mainImage.src = null;\n        reportImage.src = null;\n        return;\n    }\n\n    \n\n    const currentImages = currentSet.validationImages[currentPage - 1];\n\n    if (currentImages) {\n        mainImage.src = `${currentImages[0]}`;\n        reportImage.src = `${currentImages[1]}`;\n    } else {\n        console.warn(`No images found for page ${currentPage}`);\n    }\n}\n\n// Event listeners for buttons\ndocument.getElementById(\"prev-page\").addEventListener(\"click\", () => {\n    if (currentPage > 1) {\n        currentPage--;\n        updateNavigation();\n    }\n});\n\ndocument.getElementById(\"next-page\").addEventListener(\"click\", () => {\n    if (currentPage < totalPages) {\n        currentPage++;\n        updateNavigation();\n    }\n});\n\n</script>\n    <script type=\"text/javascript\">\nconst mainImage = document.getElementById('mainImage');\nconst circleImage = document.getElementById('circleImage');\nconst reportImage = document.getElementById('reportImage');\nconst reportCircleImage = document.getElementById('reportCircleImage');\n\nconst zoomFactor = 2;\nconst circleSize = 200;\nconst sourceWidth = circleSize / zoomFactor;\nconst sourceHeight = circleSize / zoomFactor;\n\nlet imageWidth = 0, imageHeight = 0, imageSrc = \"\", rect = {};\nlet reportWidth = 0, reportHeight = 0, reportSrc = \"\";\n\nlet lastX = null, lastY = null, lastClientX = null, lastClientY = null;\nlet isMouseOverReport = false;\nlet rafPending = false;\n\nfunction updateImageProperties() {\n  imageWidth = mainImage.width;\n  imageHeight = mainImage.height;\n  imageSrc = mainImage.src;\n  rect = mainImage.getBoundingClientRect();\n}\nmainImage.onload = updateImageProperties;\nif (mainImage.complete) updateImageProperties();\n\nfunction updateReportProperties() {\n  reportWidth = reportImage.width;\n  reportHeight = reportImage.height;\n  reportSrc = reportImage.src;\n}\nreportImage.onload = updateReportProperties;\nif (reportImage.complete) updateReportProperties();\n\nfunction drawZoomCircle({\n  target,\n  imageSrc,\n  imgW,\n  imgH,\n  x,\n  y,\n  screenX,\n  screenY\n}) {\n  const boundedX = Math.max(sourceWidth / 2, Math.min(imgW - sourceWidth / 2, Math.round(x)));\n  const boundedY = Math.max(sourceHeight / 2, Math.min(imgH - sourceHeight / 2, Math.round(y)));\n  const sourceX = boundedX - sourceWidth / 2;\n  const sourceY = boundedY - sourceHeight / 2;\n\n  target.style.backgroundImage = `url(${imageSrc})`;\n  target.style.backgroundSize = `${imgW * zoomFactor}px ${imgH * zoomFactor}px`;\n  target.style.backgroundPosition = `-${sourceX * zoomFactor}px -${sourceY * zoomFactor}px`;\n  target.style.backgroundRepeat = 'no-repeat';\n  target.style.width = `${circleSize}px`;\n  target.style.height = `${circleSize}px`;\n  target.style.left = `${screenX - circleSize / 2}px`;\n  target.style.top = `${screenY - circleSize / 2}px`;\n  target.style.display = 'block';\n}\n\n// ---- Main Image ----\nmainImage.addEventListener('mousemove', (event) => {\n  if (rafPending) return;\n  rafPending = true;\n  requestAnimationFrame(() => {\n    const x = event.clientX - rect.left;\n    const y = event.clientY - rect.top;\n    drawZoomCircle({\n      target: circleImage,\n      imageSrc,\n      imgW: imageWidth,\n      imgH: imageHeight,\n      x,\n      y,\n      screenX: Math.round(rect.left + x),\n      screenY: Math.round(rect.top + y)\n    });\n    rafPending = false;\n  });\n});\n\nmainImage.addEventListener('mouseleave', () => {\n  circleImage.style.display = 'none';\n});\n\n// ---- Report Image ----\nreportImage.addEventListener('mousemove', (event) => {\n  const reportRect = reportImage.getBoundingClientRect();\n  const x = event.clientX - reportRect.left;\n  const y = event.clientY - reportRect.top;\n\n  lastX = x;\n  lastY = y;\n  lastClientX = event.clientX;\n  lastClientY = event.clientY;\n  isMouseOverReport = true;\n\n  if (!rafPending) {\n    rafPending = true;\n    requestAnimationFrame(() => {\n      drawZoomCircle({\n        target: reportCircleImage,\n        imageSrc: reportSrc,\n        imgW: reportWidth,\n        imgH: reportHeight,\n        x: lastX,\n        y: lastY,\n        screenX: lastClientX,\n        screenY: lastClientY\n      });\n      rafPending = false;\n    });\n  }\n});\n\nreportImage.addEventListener('mouseleave', () => {\n  isMouseOverReport = false;\n  reportCircleImage.style.display = 'none';\n});\n\n// ---- Scroll Zoom Tracking ----\ndocument.querySelector('.report-container').addEventListener('scroll', () => {\n  if (isMouseOverReport && lastX !== null && lastY !== null) {\n    const reportRect = reportImage.getBoundingClientRect();\n    const x = lastClientX - reportRect.left;\n    const y = lastClientY - reportRect.top;\n\n    if (!rafPending) {\n      rafPending = true;\n      requestAnimationFrame(() => {\n        drawZoomCircle({\n          target: reportCircleImage,\n          imageSrc: reportSrc,\n          imgW: reportWidth,\n          imgH: reportHeight,\n          x,\n          y,\n          screenX: lastClientX,\n          screenY: lastClientY\n        });\n        rafPending = false;\n      });\n    }\n  }\n});\n\n</script>\n    <script type=\"text/javascript\">\ndocument.getElementById(\"fullscreenBtn\").addEventListener(\"click\", function() {\n    var wrapper = document.querySelector(\".alignment-image-wrapper\");\n    var icon = document.getElementById(\"fullscreenBtn\");\n    \n    // Toggle fullscreen class on wrapper\n    wrapper.classList.toggle(\"fullscreen\");\n    \n    // Toggle icon to indicate fullscreen state\n    if (wrapper.classList.contains(\"fullscreen\")) {\n        icon.textContent = \"⛔\"; // Change to \"Exit Fullscreen\" icon (or any icon of your choice)\n    } else {\n        icon.textContent = \"⛶\"; // Original fullscreen icon\n    }\n});\n\n</script>\n</body>\n\n</html>\n";
+    public static final String REPORT_HTML = "<!DOCTYPE html>\n<html lang=\"en\">\n\n<head>\n    <meta charset=\"UTF-8\">\n    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n    <title>Interactive Report</title>\n\n    <!-- Link to general layout styles -->\n    <style type=\"text/css\">\n/* Setting a darker shade of white for the body */\nbody {\n    background-color: #f4f4f4; /* A bit darker than white */\n    margin: 0; /* Removing default margin */\n    padding: 0;\n    height: 100vh; /* Ensure full viewport height */\n    display: flex;\n    justify-content: center;\n    align-items: center; /* Center content vertically */\n    font-family: 'Arial', sans-serif; /* Modern sans-serif font */\n}\n\n/* Container div with 95% width and 95% height of the viewport */\n.container {\n    width: 95vw; /* 95% of viewport width */\n    height: 95vh; /* 95% of viewport height */\n    background-color: #ffffff; /* White background for the div */\n    box-sizing: border-box; /* Ensure margin is inside the div */\n    display: flex;\n    justify-content: center; /* Align items horizontally */\n    align-items: center; /* Center content vertically */\n    border-radius: 15px; /* Rounded corners for a soft modern look */\n    box-shadow: 0 10px 20px rgba(0, 0, 0, 0.1); /* Subtle shadow for depth */\n    transition: box-shadow 0.3s ease; /* Smooth transition for shadow */\n}\n\n\n\n</style>\n    <!-- Link to right-content specific styles -->\n    <style type=\"text/css\">\n/* Right-side div with 90% width */\n.right-content {\n    width: 90%; /* 90% width */\n    height: 100%; /* Full height */\n    display: flex;\n    flex-direction: column; /* Stack elements vertically */\n}\n\n/* Top div */\n.top-div {\n    display: flex;\n    flex-direction: row; /* Arrange buttons horizontally */\n    justify-content: center; /* Center buttons horizontally */\n    align-items: center; /* Center buttons vertically */\n    padding: 10px 0; /* Small padding for some spacing */\n    height: auto; /* Allow height to adjust based on content */\n    width: 100%; /* Full width */\n}\n\n/* Styling only the buttons inside the top div */\n.top-div button {\n    padding: 15px 30px; /* Horizontal padding to make buttons bigger */\n    margin: 0 10px; /* Small margin between buttons */\n    font-size: 18px; /* Larger font size for readability */\n    border: none; /* Remove default border */\n    border-radius: 8px; /* Rounded corners for modern look */\n    background-color: #d3d3d3; /* Grey background color for unselected buttons */\n    color: white; /* White text color */\n    cursor: pointer; /* Pointer cursor on hover */\n    transition: background-color 0.3s ease; /* Smooth transition for background color */\n}\n\n/* Selected button style (green) */\n.top-div button.selected {\n    background-color: #28a745; /* Green background color */\n}\n\n/* Hover effect for buttons inside top div */\n.top-div button:hover {\n    background-color: #146544; /* Darker grey on hover */\n    transform: scale(.95); /* Slight scale-up effect */\n}\n\n/* Bottom div */\n.bottom-div {\n    display: flex; /* Flexbox for bottom div */\n    justify-content: center; /* Center navigation elements */\n    align-items: center; /* Center items vertically */\n    width: 100%; /* Full width */\n    padding: 10px 0; /* Small padding for some spacing */\n}\n\n/* Navigation buttons container */\n.navigation-buttons {\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    gap: 20px; /* Gap between buttons and page info */\n}\n\n/* Styling for individual navigation buttons */\n.navigation-buttons button {\n    padding: 10px 20px; /* Padding for buttons */\n    font-size: 16px; /* Font size for readability */\n    background-color: #4a90e2; /* Blue background */\n    color: white; /* White text color */\n    border: none; /* Remove border */\n    border-radius: 8px; /* Rounded corners */\n    cursor: pointer; /* Pointer cursor on hover */\n    transition: background-color 0.3s ease; /* Smooth transition */\n}\n\n/* Hover effect for navigation buttons */\n.navigation-buttons button:hover {\n    background-color: #357ab7; /* Darker blue on hover */\n}\n\n/* Styling for the page info text */\n.navigation-buttons #page-info {\n    font-size: 16px;\n    color: #333; /* Dark text color for readability */\n}\n\n/* Disabled button styles */\n.navigation-buttons button:disabled {\n    background-color: #cccccc; /* Light gray */\n    color: #666666;             /* Darker text */\n    cursor: not-allowed;\n}\n\n</style>\n    <!-- Link to middle content specific styles -->\n    <style type=\"text/css\">\n/* Middle content section */\n.middle-content {\n    flex: 1; \n    overflow-y: auto;\n    display: flex; /* Make sure middle-content itself is a flex container */\n    flex-direction: column; /* Stack content-div and alignment-div vertically */\n}\n\n\n\n\n</style>\n    <style type=\"text/css\">\n/* Content div with fixed width */\n.content-div {\n    display: flex;\n    /* Flexbox layout */\n    flex-direction: row;\n    /* Horizontal layout */\n    gap: 20px;\n    /* Space between image and report containers */\n    width: 100%;\n    /* 100% width of its parent container */\n    height: 100%;\n    /* Full height of its parent container */\n    padding: 0 10px;\n    /* <-- Only left and right */\n    box-sizing: border-box;\n    /* Includes padding and border in the width calculation */\n    overflow: hidden;\n    /* Prevents overflow if any */\n}\n\n/* Image container (2/3 width) */\n.image-container {\n    width: 66.66%;\n    /* Fixed width 2/3 of the container */\n    height: 100%;\n    /* Full height of its parent container */\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    overflow: hidden;\n}\n\n/* Image to fit in the container */\n#mainImage {\n    height: 100%;\n    /* Ensure the image fits container width */\n    max-height: 100%;\n    /* Ensure the image fits container height */\n    object-fit: contain;\n    /* Maintain aspect ratio */\n    background-color: black;\n}\n\n/* Side-by-side view composed from the two page images and their box overlays */\n.composed-image {\n    display: none;\n    height: 100%;\n    max-width: 100%;\n    background-color: black;\n}\n\n.composed-side {\n    position: relative;\n    height: 100%;\n}\n\n/* Each page at full height, like the combined image */\n.composed-side img {\n    display: block;\n    height: 100%;\n}\n\n/* Overlay covers its page image exactly; box coordinates are fractions of the page */\n.composed-side .composed-overlay {\n    position: absolute;\n    left: 0;\n    top: 0;\n    width: 100%;\n    height: 100%;\n    pointer-events: none;\n}\n\n/* Buttons showing or hiding each kind of word box */\n.action-mode-buttons.box-toggles {\n    display: none;\n    flex-wrap: wrap;\n    gap: 8px;\n    padding: 0 0 10px 0;\n}\n\n.action-mode-buttons.box-toggles button {\n    padding: 6px 12px;\n    font-size: 14px;\n}\n\n\n#circleImage,\n#reportCircleImage {\n    position: absolute;\n    display: none;\n    border-radius: 50%;\n    object-fit: contain;\n    pointer-events: none;\n    width: 200px;\n    height: 200px;\n    border: 2px solid rgba(255, 255, 255, 0.6);\n    box-shadow:\n        inset 0 0 10px rgba(255, 255, 255, 0.3),\n        0 4px 12px rgba(0, 0, 0, 0.25);\n    background-repeat: no-repeat;\n    background-position: center;\n    background-size: cover;\n    background-color: rgba(255, 255, 255, 0.05);\n    backdrop-filter: blur(1px);\n    transition: background-position 0.05s;\n    z-index: 1000; /* Ensure it's on top */\n}\n\n\n\n/* Report container (1/3 width) */\n.report-container {\n    width: 33.33%;\n    /* Fixed width 1/3 of the container */\n    height: 100%;\n    /* Full height of its parent container */\n    display: block;\n    justify-content: flex-start;\n    /* Align from top */\n    overflow-y: auto;\n    /* Enable vertical scrolling */\n}\n\n/* Report image */\n.report-container img {\n    width: 100%;\n    /* Image width 100% */\n    height: auto;\n    /* Maintain aspect ratio */\n    object-fit: cover;\n    /* Image fills container, maintaining aspect ratio */\n    object-position: top;\n    /* Align the image from the top */\n    max-height: none;\n    /* Ensure no height restriction */\n}\n</style>\n    <style type=\"text/css\">\n.alignment-div {\n    display: none;\n    flex-direction: column;\n    align-items: center;\n    justify-content: flex-start;\n    width: 100%;\n    height: 100%;\n    padding: 0 10px; /* <-- Only left and right */\n    box-sizing: border-box; /* Includes padding and border in the width calculation */\n    overflow: hidden;\n}\n\n\n.action-mode-buttons {\n    width: 100%;\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    gap: 15px;\n    padding: 20px 0;\n}\n\n.action-mode-buttons button {\n    padding: 10px 20px;\n    border: none;\n    border-radius: 8px;\n    background-color: #e0e0e0;\n    color: #333;\n    font-size: 16px;\n    cursor: pointer;\n    transition: background-color 0.3s ease, color 0.3s ease;\n}\n\n.action-mode-buttons button:hover {\n    background-color: #c8e6c9;\n}\n\n.action-mode-buttons button.selected {\n    background-color: #4caf50;\n    color: white;\n}\n\n.alignment-image-wrapper {\n    width: auto;\n    height: 100%;\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    background-color: #333;\n    position: relative;\n    transition: all 0.3s ease;\n}\n\n#alignmentImage {\n    width: auto;\n    height: 100%;\n    object-fit: contain;\n    display: block;\n    transition: all 0.3s ease;\n}\n\n#fullscreenBtn {\n    position: absolute;\n    width: 40px;\n    height: 40px;\n    top: 10px;\n    right: 10px;\n    color: white; /* White text */\n    font-size: 20px;\n    border: 2px solid white;\n    border-radius: 50%;\n    background-color: #4a90e2; /* Blue background */\n    cursor: pointer;\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    padding: 10px 10px 12px 10px;\n    transition: background-color 0.3s ease, transform 0.2s ease; /* Add a transform for hover effect */\n}\n\n#fullscreenBtn:hover {\n    background-color: rgba(0, 100, 0);\n}\n\n.alignment-image-wrapper.fullscreen {\n    position: fixed;\n    top: 0;\n    left: 0;\n    width: 100%;\n    height: 100%;\n    background-color: rgba(0, 0, 0, 0.9);\n    z-index: 9999;\n}\n\n.alignment-image-wrapper.fullscreen #alignmentImage {\n    width: 100%;\n    height: 100%;\n    object-fit: contain;\n}\n\n</style>\n    <style type=\"text/css\">\n/* prodigy-div.css - scoped to #prodigy-div so it won't affect other parts */\n\n/* Main prodigy wrapper */\n#prodigy-div.prodigy-div {\n    display: none;\n    flex-direction: column;\n    align-items: center;\n    justify-content: flex-start;\n    width: 100%;\n    height: 100%;\n    padding: 0 10px;\n    box-sizing: border-box;\n    overflow: hidden;\n}\n\n/* Buttons row inside prodigy */\n#prodigy-div .action-mode-buttons {\n    width: 100%;\n    display: flex;\n    justify-content: center;\n    gap: 15px;\n    padding: 20px 0;\n}\n\n#prodigy-div .action-mode-buttons button {\n    padding: 10px 20px;\n    border: none;\n    border-radius: 8px;\n    background-color: #e0e0e0;\n    color: #333;\n    font-size: 16px;\n    cursor: pointer;\n    transition: background-color 0.3s ease, color 0.3s ease;\n}\n\n#prodigy-div .action-mode-buttons button.selected {\n    background-color: #4caf50;\n    color: white;\n}\n\n/* Main area: Image left, list right */\n#prodigy-div .prodigy-container {\n    width: 100%;\n    height: 100%;\n    display: flex;\n    gap: 12px;\n    background: none !important;\n}\n\n/* Left panel: image (transparent) inside prodigy */\n#prodigy-div .image-container {\n    width: 50%;\n    height: 100%;\n    display: flex;\n    justify-content: center;\n    align-items: center;\n    background: none !important;\n}\n\n/* Image itself inside prodigy */\n#prodigy-div #prodigyImage {\n    width: auto;\n    height: 100%;\n    object-fit: contain;\n    background: none !important;\n}\n\n/* ========================================================= */\n/* ===== Improved Report Container ONLY ==================== */\n/* ========================================================= */\n\n#prodigy-div .pairs-container {\n    width: 50%;\n    height: 100%;\n    display: flex;\n    flex-direction: column;\n\n    background: #fbfcfe;\n    color: #0b1220;\n\n    border-left: 1px solid #e6e9ef;\n    overflow-y: auto;\n    padding: 16px;\n    gap: 12px;\n    box-sizing: border-box;\n}\n\n/* Header row — now HIGHER CONTRAST */\n#prodigy-div .pairs-header {\n    display: grid;\n    grid-template-columns: 1fr 1fr;\n\n    padding: 10px 14px;\n    font-weight: 700;\n    font-size: 14px;\n\n    background: #e2e8f0;      /* MORE CONTRAST */\n    color: #1e293b;           /* darker text */\n\n    letter-spacing: 0.3px;    /* slightly sharper text */\n    border-radius: 6px;\n\n    align-items: center;\n    box-sizing: border-box;\n}\n\n/* Divider below header */\n#prodigy-div .pairs-header::after {\n    content: \"\";\n    display: block;\n    height: 1px;\n    background: #cbd5e1;\n    grid-column: 1 / -1;\n    margin-top: 8px;\n}\n\n/* List container */\n#prodigy-div .pairs-list {\n    flex: 1;\n    overflow-y: auto;     /* vertical scroll */\n    padding: 8px 2px;\n    display: flex;\n    flex-direction: column;\n    gap: 10px;\n}\n\n/* Each pair row: modern card look */\n#prodigy-div .pair-row {\n    display: grid;\n    grid-template-columns: 1fr 1fr;\n    gap: 12px;\n    padding: 12px;\n\n    border-radius: 10px;\n    background: #ffffff;\n    border: 1px solid #eef2f7;\n    box-shadow: 0 4px 10px rgba(15, 23, 42, 0.04);\n\n    align-items: start;\n    transition: transform 160ms ease, box-shadow 160ms ease;\n}\n\n/* hover effect */\n#prodigy-div .pair-row:hover {\n    transform: translateY(-4px);\n    box-shadow: 0 12px 30px rgba(15, 23, 42, 0.08);\n}\n\n/* Row content: WITH horizontal scroll inside each sentence */\n#prodigy-div .pair-row .col {\n    padding: 6px 8px;\n    color: #0b1220;\n    font-size: 14px;\n    line-height: 1.45;\n\n    white-space: nowrap;    /* keep on one line */\n    overflow-x: auto;       /* enable horizontal scroll */\n    overflow-y: hidden;\n    scrollbar-width: none;  /* Firefox hide scrollbar */\n}\n\n#prodigy-div .pair-row .col::-webkit-scrollbar {\n    height: 0px;            /* Chrome hide scrollbar */\n}\n\n/* Wrong sentence style */\n#prodigy-div .pair-row .wrong {\n    color: #b42318;\n    background: rgba(180,35,24,0.06);\n    border-radius: 8px;\n    padding: 8px;\n    border: 1px solid rgba(180,35,24,0.06);\n}\n\n/* Suggested sentence style */\n#prodigy-div .pair-row .suggested {\n    color: #057a55;\n    background: rgba(5,122,85,0.05);\n    border-radius: 8px;\n    padding: 8px;\n    border: 1px solid rgba(5,122,85,0.05);\n}\n\n/* Empty state row */\n#prodigy-div .pair-row.empty {\n    display: flex;\n    justify-content: center;\n    align-items: center;\n\n    grid-column: 1 / -1;\n    text-align: center;\n\n    color: #64748b;\n    background: #fff;\n\n    border-style: dashed;\n    border-color: #eef2f7;\n    box-shadow: none;\n}\n\n/* Subtle custom scrollbar for pairs-list (scoped) */\n#prodigy-div .pairs-list::-webkit-scrollbar { width: 10px; }\n#prodigy-div .pairs-list::-webkit-scrollbar-track { background: transparent; }\n#prodigy-div .pairs-list::-webkit-scrollbar-thumb {\n    background: linear-gradient(180deg, #e6eefc, #dfe9f6);\n    border-radius: 8px;\n    border: 2px solid transparent;\n    background-clip: padding-box;\n}\n\n/* also scope any utility columns used in header */\n#prodigy-div .pairs-header .col { padding: 0; }\n#prodigy-div .pairs-header .wrong-col,\n#prodigy-div .pairs-header .suggested-col { font-weight: 700; font-size: 13px; }\n\n/* Ensure any generic selectors used here do not leak out */\n#prodigy-div .col { box-sizing: border-box; }\n\n</style>\n    <!-- Link to sidebar specific styles -->\n    <style type=\"text/css\">\n/* Sidebar with 12% width, blue background, and matching rounded corners */\n.sidebar {\n    width: 12%; /* Increased to 12% */\n    background-color: #4a90e2;\n    height: 100vh; /* Full viewport height */\n    border-top-left-radius: 15px;\n    border-bottom-left-radius: 15px;\n    padding: 10px;\n    box-sizing: border-box;\n    display: flex;\n    flex-direction: column;\n    overflow-x: auto; /* Allow horizontal scroll */\n}\n\n/* Header text */\n.sidebar-header {\n    font-size: 24px;\n    font-weight: bold;\n    color: white;\n    margin-bottom: 20px;\n    text-align: center;\n}\n\n/* Sidebar items container (scrollable) */\n.sidebar-items {\n    overflow-y: auto;\n    overflow-x: auto; /* Allow horizontal scroll for long items */\n    max-height: calc(100% - 80px);\n    padding-right: 5px; /* Optional: spacing for scroll bar */\n}\n\n/* Sidebar items */\n.sidebar-item {\n    width: 100%; /* Full width inside sidebar */\n    min-width: max-content; /* Ensures the button fits the text */\n    margin: 10px 0;\n    padding: 15px 20px;\n    background-color: #d3d3d3;\n    color: black;\n    font-size: 12px;\n    font-weight: bold;\n    border-radius: 8px;\n    cursor: pointer;\n    transition: background-color 0.3s ease, transform 0.2s ease;\n    text-align: center;\n\n    white-space: nowrap; /* Prevent line wrapping */\n    overflow: visible; /* Allow overflow */\n    text-overflow: unset; /* No ellipsis */\n}\n\n/* Hover effect for sidebar items */\n.sidebar-item:hover {\n    background-color: #b0b0b0;\n    transform: scale(0.95);\n}\n\n/* Active item style */\n.sidebar-item.active {\n    background-color: #3cb371;\n    color: white;\n}\n\n</style>\n</head>\n\n<body>\n    <div class=\"container\">\n        <!-- Sidebar on the left with blue background -->\n        <div class=\"sidebar\">\n            <div class=\"sidebar-header\">Items</div>\n            <div id=\"sidebar-items\" class=\"sidebar-items\">\n            </div>\n        </div>\n\n        <!-- Right-side content container -->\n        <div class=\"right-content\">\n            <!-- Top div with buttons -->\n            <div class=\"top-div\">\n                <button class=\"selected\" id=\"content-validation-btn\">Content Validation</button>\n                <button id=\"alignment-validation-btn\">Alignment Validation</button>\n                <button id=\"prodigy-validation-btn\">Prodigy Validation</button>\n            </div>\n\n            <!-- Middle content section -->\n            <div class=\"middle-content\">\n                <!-- Content Validation div -->\n                <div class=\"content-div\" id=\"content-div\">\n                    <div class=\"image-container\">\n                        <img id=\"mainImage\" src=\"\" alt=\"Main Image\" />\n                        <div id=\"composedImage\" class=\"composed-image\">\n                            <div class=\"composed-side\">\n                                <img id=\"composedImage1\" src=\"\" alt=\"Document 1\" />\n                                <svg id=\"composedOverlay1\" class=\"composed-overlay\" viewBox=\"0 0 1 1\" preserveAspectRatio=\"none\"></svg>\n                            </div>\n                            <div class=\"composed-side\">\n                                <img id=\"composedImage2\" src=\"\" alt=\"Document 2\" />\n                                <svg id=\"composedOverlay2\" class=\"composed-overlay\" viewBox=\"0 0 1 1\" preserveAspectRatio=\"none\"></svg>\n                            </div>\n                        </div>\n                        <img id=\"circleImage\" />\n                    </div>\n\n                    <div class=\"report-container\">\n                        <div class=\"action-mode-buttons box-toggles\" id=\"boxToggles\">\n                            <button class=\"selected\" data-operation=\"DELETED\">Deleted</button>\n                            <button class=\"selected\" data-operation=\"ADDED\">Added</button>\n                            <button class=\"selected\" data-operation=\"FONT\">Font</button>\n                            <button class=\"selected\" data-operation=\"SIZE\">Size</button>\n                            <button class=\"selected\" data-operation=\"STYLE\">Style</button>\n                        </div>\n                        <img id=\"reportImage\" src=\"\" alt=\"Report Image\" />\n                        <img id=\"reportCircleImage\" />\n                    </div>\n                </div>\n\n                <!-- Alignment Validation div -->\n                <div class=\"alignment-div\" id=\"alignment-div\">\n                    <div class=\"action-mode-buttons\" id=\"actionModeButtons\">\n                        <button id=\"pressHoldBtn\" class=\"selected\">Press and Hold</button>\n                        <button id=\"highlightBtn\">Highlight</button>\n                    </div>\n                    \n                    <div class=\"alignment-image-wrapper\">\n                        <img id=\"alignmentImage\" src=\"\" />\n                        <button id=\"fullscreenBtn\" title=\"Fullscreen\">⛶</button>\n                    </div>\n                </div>\n\n                <div class=\"prodigy-div\" id=\"prodigy-div\">\n                    <div class=\"action-mode-buttons\" id=\"prodigyModeButtons\">\n                        <button id=\"prodigySourceBtn\" class=\"selected\">Source</button>\n                        <button id=\"prodigyTargetBtn\">Target</button>\n                    </div>\n\n                    <div class=\"prodigy-container\">\n\n                        <!-- LEFT: Image -->\n                        <div class=\"image-container\">\n                            <img id=\"prodigyImage\" src=\"\" alt=\"Prodigy Image\" />\n                        </div>\n\n                        <!-- RIGHT: Sentence list (Wrong | Suggested) -->\n                        <div class=\"pairs-container\">\n                            <div class=\"pairs-header\">\n                                <div class=\"col wrong-col\">Wrong Sentence</div>\n                                <div class=\"col suggested-col\">Suggested Sentence</div>\n                            </div>\n\n                            <div id=\"pairsList\" class=\"pairs-list\">\n                                <!-- JS will append rows like:\n                                <div class=\"pair-row\">\n                                    <div class=\"col wrong\">text...</div>\n                                    <div class=\"col suggested\">text...</div>\n                                </div>\n                                -->\n                            </div>\n                        </div>\n                    </div>\n                </div>\n\n\n\n\n            </div>\n\n            <!-- Bottom div with navigation buttons -->\n            <div class=\"bottom-div\">\n                <div class=\"navigation-buttons\">\n                    <button id=\"prev-page\" disabled>Previous</button>\n                    <span id=\"page-info\">Page 1 of 1</span>\n                    <button id=\"next-page\" disabled>Next</button>\n                </div>\n            </div>\n        </div>\n    </div>\n\n    <!-- Link to script files -->\n    <script src=\"data-map.js\"></script>\n    <script type=\"text/javascript\">\n// Buttons\nconst contentValidationBtn = document.getElementById('content-validation-btn');\nconst alignmentValidationBtn = document.getElementById('alignment-validation-btn');\nconst prodigyValidationBtn = document.getElementById('prodigy-validation-btn');\n\n// Sections\nconst contentDiv = document.getElementById('content-div');\nconst alignmentDiv = document.getElementById('alignment-div');\nconst prodigyDiv = document.getElementById('prodigy-div');\n\n// Helper to switch tabs\nfunction activateTab(activeBtn, ...inactiveBtns) {\n    activeBtn.classList.add('selected');\n    inactiveBtns.forEach(btn => btn.classList.remove('selected'));\n}\n\n// Show Content Validation\ncontentValidationBtn.addEventListener('click', () => {\n    contentDiv.style.display = 'flex';\n    alignmentDiv.style.display = 'none';\n    prodigyDiv.style.display = 'none';\n\n    activateTab(contentValidationBtn, alignmentValidationBtn, prodigyValidationBtn);\n\n    updateImageProperties(); // existing function\n});\n\n// Show Alignment Validation\nalignmentValidationBtn.addEventListener('click', () => {\n    alignmentDiv.style.display = 'flex';\n    contentDiv.style.display = 'none';\n    prodigyDiv.style.display = 'none';\n\n    activateTab(alignmentValidationBtn, contentValidationBtn, prodigyValidationBtn);\n});\n\n// Show Prodigy Validation\nprodigyValidationBtn.addEventListener('click', () => {\n    prodigyDiv.style.display = 'flex';\n    contentDiv.style.display = 'none';\n    alignmentDiv.style.display = 'none';\n\n    activateTab(prodigyValidationBtn, contentValidationBtn, alignmentValidationBtn);\n\n    // TODO: update prodigy image if needed\n});\n\n</script>\n    <script type=\"text/javascript\">\n// main.js (or wherever you are putting this)\n\n// Assuming itemImageMap is already available in the scope\n\nlet currentSet = {};\nlet currentPageIndex = 0; // numeric map key of the current set\nlet totalPages = 0;\nlet currentPage = 1;  // Reset currentPage to 1\n\n// Function to create sidebar items dynamically\nfunction createSidebarItems() {\n    const sidebarItemsContainer = document.getElementById('sidebar-items');\n    if (!sidebarItemsContainer) return;\n\n    sidebarItemsContainer.innerHTML = ''; // clear any existing items\n\n    // Iterate through the map and create items\n    itemImageMap.forEach((value, key) => {\n        const itemElement = document.createElement('div');\n        itemElement.classList.add('sidebar-item');\n        // Use numeric key in id (stringified). Use name from the value.\n        const safeKeyStr = String(key).toLowerCase().replace(/\\s+/g, '-').replace(/[^a-z0-9\\-]/g, '');\n        itemElement.id = `item-${safeKeyStr}`;\n        // Display name from the value object; show key index to disambiguate if needed\n        const displayName = value && value.name ? value.name : String(key);\n        itemElement.textContent = `${displayName}`;\n\n        // store the numeric key on the element so we can retrieve it reliably\n        itemElement.dataset.key = String(key);\n\n        // Add event listener for item selection\n        itemElement.addEventListener('click', () => {\n            // pass numeric key (convert from dataset to Number)\n            selectItem(Number(itemElement.dataset.key), itemElement);\n        });\n\n        sidebarItemsContainer.appendChild(itemElement);\n    });\n\n    // Set the first item as active by default (use data-key)\n    const firstItem = sidebarItemsContainer.querySelector('.sidebar-item');\n    if (firstItem) {\n        const firstKey = Number(firstItem.dataset.key || 0);\n        selectItem(firstKey, firstItem);\n    }\n}\n\n// Function to handle item selection\nfunction selectItem(key, itemElement) {\n    // Remove active class from all sidebar items\n    document.querySelectorAll('.sidebar-item').forEach(i => i.classList.remove('active'));\n\n    // Add active class to the clicked item (if provided)\n    if (itemElement) itemElement.classList.add('active');\n    else {\n        const el = document.querySelector(`.sidebar-item[data-key=\"${String(key)}\"]`);\n        if (el) el.classList.add('active');\n    }\n\n    // Reset currentPage to 1\n    currentPage = 1;\n\n    // Store numeric index of current set\n    currentPageIndex = key;\n\n    // Get the current set from the clicked item's numeric key\n    currentSet = itemImageMap.get(key);\n\n    if (!currentSet) {\n        console.warn(`No item found in itemImageMap for key: ${key}`);\n        totalPages = 0;\n        updateNavigation();\n        return;\n    }\n\n    // Calculate totalPages based on validationImages length (safe check)\n    totalPages = Array.isArray(currentSet.validationImages) ? currentSet.validationImages.length : 0;\n\n    // Update navigation buttons and page info\n    updateNavigation();\n\n    // (Optional) Display alert with current set details\n    const displayName = currentSet.name || String(key);\n    console.log(`Item: ${displayName} (key=${key}), Total Pages: ${totalPages}, Current Page: ${currentPage}`);\n}\n\n// Call the function to populate the sidebar after the DOM has loaded\ndocument.addEventListener('DOMContentLoaded', function(){\n    createSidebarItems();\n});\n\n</script>\n    <script type=\"text/javascript\">\n// Flag to track if \"Press and Hold\" is selected\nlet isPressAndHoldSelected = true; // Assume true initially (or set based on default state)\n\n// Get all buttons inside the action-mode-buttons container\nconst actionButtons = document.querySelectorAll('.action-mode-buttons button');\n\n// Add click event listener to each button\nactionButtons.forEach(button => {\n    button.addEventListener('click', () => {\n        // Remove 'selected' class from all buttons\n        actionButtons.forEach(btn => btn.classList.remove('selected'));\n\n        // Add 'selected' class to the clicked button\n        button.classList.add('selected');\n\n        // Update flag based on the selected button\n        if (button.id === 'pressHoldBtn') {\n            isPressAndHoldSelected = true; // \"Press and Hold\" is selected\n        } else if (button.id === 'highlightBtn') {\n            isPressAndHoldSelected = false; // \"Highlight\" is selected\n        }\n\n        // Update the alignment image when the action mode changes\n        updateAlignmentImage(currentSet, currentPage);\n    });\n});\n\n// Function to get the alignment image for the current page based on the flag\nfunction getAlignmentImage(currentSet, currentPage) {\n    // Ensure we are not trying to access an out-of-bounds index\n    const alignmentImages = currentSet.alignmentImages[currentPage - 1];\n\n    // Check if the alignment image exists for the given page\n    if (alignmentImages && alignmentImages.length > 2) {\n        // Use the flag to return the correct alignment image\n        return alignmentImages[isPressAndHoldSelected ? 0 : 2]; // Return 0th image if flag is true, else 1st\n    } else {\n        console.warn(`No alignment image found for page ${currentPage}`);\n        return null;\n    }\n}\n\n// Function to update the alignment image\nfunction updateAlignmentImage(currentSet, currentPage) {\n    const alignmentImageWrapper = document.querySelector('.alignment-image-wrapper');\n    const alignmentImage = document.getElementById('alignmentImage');\n\n    if (alignmentImageWrapper && alignmentImage) {\n        const currentAlignmentImage = getAlignmentImage(currentSet, currentPage);\n\n        if (currentAlignmentImage) {\n            alignmentImage.src = currentAlignmentImage;\n        } else {\n            alignmentImage.src = null;\n            console.warn(`No alignment image found for page ${currentPage}`);\n        }\n    }\n}\n\n// Handle press-and-hold toggle for alignment image\nconst alignmentImage = document.getElementById('alignmentImage');\n\n// Track whether the mouse is currently pressed\nlet isMousePressed = false;\n\n// Add mousedown and mouseup events to handle press and hold\nalignmentImage.addEventListener('mousedown', () => {\n    if (isPressAndHoldSelected) {\n        isMousePressed = true;\n        // Change the image to the second one when the mouse is pressed down\n        const alignmentImages = currentSet.alignmentImages[currentPage - 1];\n        if (alignmentImages && alignmentImages.length > 1) {\n            alignmentImage.src = alignmentImages[1]; // Show the second image\n        }\n    }\n});\n\nalignmentImage.addEventListener('mouseup', () => {\n    if (isPressAndHoldSelected && isMousePressed) {\n        isMousePressed = false;\n        // Revert back to the first image when the mouse is released\n        const alignmentImages = currentSet.alignmentImages[currentPage - 1];\n        if (alignmentImages && alignmentImages.length > 1) {\n            alignmentImage.src = alignmentImages[0]; // Show the first image\n        }\n    }\n});\n\nalignmentImage.addEventListener('mouseleave', () => {\n    if (isMousePressed) {\n        // Reset the image if the mouse leaves the alignmentImage while pressed\n        isMousePressed = false;\n        const alignmentImages = currentSet.alignmentImages[currentPage - 1];\n        if (alignmentImages && alignmentImages.length > 1) {\n            alignmentImage.src = alignmentImages[0]; // Revert to the first image\n        }\n    }\n});\n\n</script>\n    <script type=\"text/javascript\">\n// prodigy.js\n// Renders the prodigy image for the current page and wires Source/Target buttons.\n\n// Flag for Source vs Target selection\nlet isSourceSelected = true; // default\n\n// Buttons inside the prodigy action-mode-buttons area\nconst prodigyActionButtons = document.querySelectorAll('#prodigy-div .action-mode-buttons button');\n\n// The prodigy image element in the DOM\nconst prodigyImageEl = document.getElementById('prodigyImage');\n\n// The pairs list container (right panel)\nconst pairsListEl = document.getElementById('pairsList');\n\n/**\n * Utility: get the page entry object for currentSet/currentPage\n * Expected shape per page:\n * {\n *   source: { image: \"...\", pairs: [ [src, tgt], ... ] },\n *   target: { image: \"...\", pairs: [ [src, tgt], ... ] }\n * }\n */\nfunction getProdigyPageEntry(currentSet, currentPage) {\n    if (!currentSet || !Array.isArray(currentSet.prodigyValidation)) return null;\n    const pageIndex = (typeof currentPage === 'number' && currentPage > 0) ? currentPage - 1 : 0;\n    if (pageIndex < 0 || pageIndex >= currentSet.prodigyValidation.length) return null;\n    return currentSet.prodigyValidation[pageIndex] || null;\n}\n\n/**\n * Get the prodigy image path for the current set & page.\n * Returns the source.image if isSourceSelected === true, otherwise target.image.\n *\n * @param {Object} currentSet\n * @param {number} currentPage\n * @returns {string|null}\n */\nfunction getProdigyImagePath(currentSet, currentPage) {\n    const pageEntry = getProdigyPageEntry(currentSet, currentPage);\n    if (!pageEntry) {\n        console.warn('getProdigyImagePath: pageEntry not found');\n        return null;\n    }\n\n    // Expect pageEntry.source and pageEntry.target to exist\n    if (isSourceSelected) {\n        return (pageEntry.source && pageEntry.source.image) ? pageEntry.source.image : null;\n    } else {\n        return (pageEntry.target && pageEntry.target.image) ? pageEntry.target.image : null;\n    }\n}\n\n/**\n * Returns the currently selected side's pairs for the current page:\n * e.g. [ [srcSentence, tgtSentence], ... ]\n * If not found, returns an empty array.\n *\n * @param {Object} currentSet\n * @param {number} currentPage\n * @returns {Array}\n */\nfunction getCurrentProdigyPairs(currentSet, currentPage) {\n    const pageEntry = getProdigyPageEntry(currentSet, currentPage);\n    if (!pageEntry) return [];\n    const side = isSourceSelected ? pageEntry.source : pageEntry.target;\n    if (!side || !Array.isArray(side.pairs)) return [];\n    return side.pairs;\n}\n\n/**\n * Dispatch a custom event 'prodigyPairsChanged' with detail { pairs, side } so UI can update.\n *\n * @param {Array} pairs\n */\nfunction dispatchProdigyPairsChanged(pairs) {\n    const ev = new CustomEvent('prodigyPairsChanged', {\n        detail: {\n            pairs,\n            side: isSourceSelected ? 'source' : 'target'\n        }\n    });\n    document.dispatchEvent(ev);\n}\n\n/**\n * Render the pairs into the #pairsList container.\n * Each row: .pair-row -> two .col elements (.wrong and .suggested)\n *\n * Uses textContent to avoid HTML injection.\n *\n * @param {Array} pairs\n */\nfunction renderProdigyPairs(pairs) {\n    if (!pairsListEl) return;\n\n    // Clear existing\n    pairsListEl.innerHTML = '';\n\n    if (!Array.isArray(pairs) || pairs.length === 0) {\n        // Optionally show an empty state\n        const empty = document.createElement('div');\n        empty.className = 'pair-row';\n        const left = document.createElement('div');\n        left.className = 'col wrong';\n        left.textContent = 'No sentences';\n        const right = document.createElement('div');\n        right.className = 'col suggested';\n        right.textContent = '';\n        empty.appendChild(left);\n        empty.appendChild(right);\n        pairsListEl.appendChild(empty);\n        return;\n    }\n\n    // Append rows\n    pairs.forEach(pair => {\n        // pair may be [wrong, suggested] — be defensive\n        const wrongText = (Array.isArray(pair) && pair.length > 0 && typeof pair[0] === 'string') ? pair[0] : '';\n        const suggestedText = (Array.isArray(pair) && pair.length > 1 && typeof pair[1] === 'string') ? pair[1] : '';\n\n        const row = document.createElement('div');\n        row.className = 'pair-row';\n\n        const left = document.createElement('div');\n        left.className = 'col wrong';\n        left.textContent = wrongText;\n\n        const right = document.createElement('div');\n        right.className = 'col suggested';\n        right.textContent = suggestedText;\n\n        row.appendChild(left);\n        row.appendChild(right);\n        pairsListEl.appendChild(row);\n    });\n}\n\n/**\n * Update the prodigy image element's src based on currentSet & currentPage.\n * Also dispatches prodigyPairsChanged so any consumer can re-render the list.\n *\n * @param {Object} currentSet\n * @param {number} currentPage\n */\nfunction updateProdigyImage(currentSet, currentPage) {\n    if (!prodigyImageEl) return;\n\n    if (!currentSet) {\n        prodigyImageEl.src = '';\n        const empty = [];\n        dispatchProdigyPairsChanged(empty);\n        renderProdigyPairs(empty);\n        console.info('updateProdigyImage: no currentSet provided — cleared image and pairs');\n        return;\n    }\n\n    const imagePath = getProdigyImagePath(currentSet, currentPage);\n    if (imagePath) {\n        prodigyImageEl.src = imagePath;\n    } else {\n        prodigyImageEl.src = '';\n        console.warn(`updateProdigyImage: could not find prodigy image for page ${currentPage}`);\n    }\n\n    // Notify any UI that the pairs changed (or may be same but consumer can re-render)\n    const pairs = getCurrentProdigyPairs(currentSet, currentPage);\n    dispatchProdigyPairsChanged(pairs);\n\n    // Also render directly into the pairs list\n    renderProdigyPairs(pairs);\n}\n\n// Wire up the buttons to toggle selection and update the image\nif (prodigyActionButtons && prodigyActionButtons.length) {\n    prodigyActionButtons.forEach(btn => {\n        btn.addEventListener('click', () => {\n            // remove 'selected' from all\n            prodigyActionButtons.forEach(b => b.classList.remove('selected'));\n\n            // mark clicked as selected\n            btn.classList.add('selected');\n\n            // update flag based on id or text (robust)\n            if (btn.id === 'prodigySourceBtn' || btn.textContent.trim().toLowerCase() === 'source') {\n                isSourceSelected = true;\n            } else {\n                isSourceSelected = false;\n            }\n\n            // Update the prodigy image and notify pairs changed when mode changes\n            updateProdigyImage(currentSet, currentPage);\n        });\n    });\n}\n\n// Expose the update function and helper so other scripts (sidebar/navigation) can call them\nwindow.updateProdigyImage = updateProdigyImage;\nwindow.getCurrentProdigyPairs = getCurrentProdigyPairs;\nwindow.isProdigySourceSelected = () => isSourceSelected;\n\n// Initial update on DOMContentLoaded (in case currentSet/currentPage are already set)\ndocument.addEventListener('DOMContentLoaded', () => {\n    updateProdigyImage(currentSet, currentPage);\n});\n\n</script>\n    <script type=\"text/javascript\">\n// navigation.js\n\n// Function to update page info and button states\nfunction updateNavigation() {\n    const prevButton = document.getElementById(\"prev-page\");\n    const nextButton = document.getElementById(\"next-page\");\n    const pageInfo = document.getElementById(\"page-info\");\n\n    // Update page info text\n    pageInfo.textContent = `Page ${currentPage} of ${totalPages}`;\n\n    // Enable or disable Previous button\n    prevButton.disabled = currentPage <= 1;\n    nextButton.disabled = currentPage >= totalPages;\n\n    // Also update images when navigation changes\n    updateImages();\n    updateAlignmentImage(currentSet, currentPage);\n    updateProdigyImage(currentSet, currentPage);\n}\n\n// Function to update mainImage and reportImage based on current page\nfunction updateImages() {\n    const mainImage = document.getElementById(\"mainImage\");\n    const reportImage = document.getElementById(\"reportImage\");\n\n    if (!currentSet || !currentSet.validationImages || currentSet.validationImages.length === 0) {\n        console.warn(\"No images to update.\");\n        showMainImage(null);\n        reportImage.src = null;\n        return;\n    }\n\n    \n\n    const currentImages = currentSet.validationImages[currentPage - 1];\n\n    if (currentImages) {\n        // Rows without a combined image list the page images to compose\n        if (!currentImages[0] && currentImages.length > 3) {\n            showComposedImages(currentImages);\n        } else {\n            showMainImage(`${currentImages[0]}`);\n        }\n        reportImage.src = `${currentImages[1]}`;\n    } else {\n        console.warn(`No images found for page ${currentPage}`);\n    }\n}\n\nfunction showMainImage(src) {\n    document.getElementById(\"composedImage\").style.display = \"none\";\n    document.getElementById(\"boxToggles\").style.display = \"none\";\n    const mainImage = document.getElementById(\"mainImage\");\n    mainImage.style.display = \"\";\n    mainImage.src = src;\n}\n\n// Content row: [empty, diff, side 1, side 2]; the word boxes come from contentBoxes\nfunction showComposedImages(currentImages) {\n    document.getElementById(\"mainImage\").style.display = \"none\";\n    document.getElementById(\"composedImage\").style.display = \"flex\";\n    document.getElementById(\"boxToggles\").style.display = \"flex\";\n\n    for (const side of [1, 2]) {\n        document.getElementById(`composedImage${side}`).src = currentImages[side + 1];\n    }\n    drawWordBoxes();\n}\n\n// Operations whose boxes are switched off with the toggle buttons\nconst hiddenOperations = new Set();\n\nfunction isHidden(box) {\n    return box.operations.length > 0 && box.operations.every(op => hiddenOperations.has(op));\n}\n\n// Draws the boxes of the current page over both sides, skipping boxes whose operations are all hidden.\n// A box without any operation (fonts differ in a way no toggle names) is always drawn, as in combined.png.\nfunction drawWordBoxes() {\n    const pageBoxes = (currentSet && currentSet.contentBoxes && currentSet.contentBoxes[currentPage - 1]) || [];\n\n    for (const side of [1, 2]) {\n        const overlay = document.getElementById(`composedOverlay${side}`);\n        overlay.replaceChildren();\n\n        for (const box of pageBoxes) {\n            if (box.side !== side || isHidden(box)) continue;\n\n            const rect = document.createElementNS(\"http://www.w3.org/2000/svg\", \"rect\");\n            rect.setAttribute(\"x\", box.x);\n            rect.setAttribute(\"y\", box.y);\n            rect.setAttribute(\"width\", box.width);\n            rect.setAttribute(\"height\", box.height);\n            rect.setAttribute(\"fill\", \"none\");\n            rect.setAttribute(\"stroke\", box.color);\n            rect.setAttribute(\"stroke-width\", \"2\");\n            rect.setAttribute(\"vector-effect\", \"non-scaling-stroke\");\n            overlay.appendChild(rect);\n        }\n\n        // Same boxes as an image for the zoom lens\n        overlay.dataset.src = overlay.childElementCount > 0\n            ? \"data:image/svg+xml,\" + encodeURIComponent(new XMLSerializer().serializeToString(overlay))\n            : \"\";\n    }\n}\n\ndocument.querySelectorAll(\"#boxToggles button\").forEach((button) => {\n    button.addEventListener(\"click\", () => {\n        const operation = button.dataset.operation;\n        if (button.classList.toggle(\"selected\")) {\n            hiddenOperations.delete(operation);\n        } else {\n            hiddenOperations.add(operation);\n        }\n        drawWordBoxes();\n    });\n});\n\n// Event listeners for buttons\ndocument.getElementById(\"prev-page\").addEventListener(\"click\", () => {\n    if (currentPage > 1) {\n        currentPage--;\n        updateNavigation();\n    }\n});\n\ndocument.getElementById(\"next-page\").addEventListener(\"click\", () => {\n    if (currentPage < totalPages) {\n        currentPage++;\n        updateNavigation();\n    }\n});\n\n</script>\n    <script type=\"text/javascript\">\nconst mainImage = document.getElementById('mainImage');\nconst circleImage = document.getElementById('circleImage');\nconst reportImage = document.getElementById('reportImage');\nconst reportCircleImage = document.getElementById('reportCircleImage');\n\nconst zoomFactor = 2;\nconst circleSize = 200;\nconst sourceWidth = circleSize / zoomFactor;\nconst sourceHeight = circleSize / zoomFactor;\n\nlet imageWidth = 0, imageHeight = 0, imageSrc = \"\", rect = {};\nlet reportWidth = 0, reportHeight = 0, reportSrc = \"\";\n\nlet lastX = null, lastY = null, lastClientX = null, lastClientY = null;\nlet isMouseOverReport = false;\nlet rafPending = false;\n\nfunction updateImageProperties() {\n  imageWidth = mainImage.width;\n  imageHeight = mainImage.height;\n  imageSrc = mainImage.src;\n  rect = mainImage.getBoundingClientRect();\n}\nmainImage.onload = updateImageProperties;\nif (mainImage.complete) updateImageProperties();\n\nfunction updateReportProperties() {\n  reportWidth = reportImage.width;\n  reportHeight = reportImage.height;\n  reportSrc = reportImage.src;\n}\nreportImage.onload = updateReportProperties;\nif (reportImage.complete) updateReportProperties();\n\nfunction drawZoomCircle({\n  target,\n  imageSrc,\n  imgW,\n  imgH,\n  x,\n  y,\n  screenX,\n  screenY\n}) {\n  const boundedX = Math.max(sourceWidth / 2, Math.min(imgW - sourceWidth / 2, Math.round(x)));\n  const boundedY = Math.max(sourceHeight / 2, Math.min(imgH - sourceHeight / 2, Math.round(y)));\n  const sourceX = boundedX - sourceWidth / 2;\n  const sourceY = boundedY - sourceHeight / 2;\n\n  // Several sources are stacked as background layers, the first on top\n  target.style.backgroundImage = [].concat(imageSrc).filter(Boolean).map(src => `url(${src})`).join(', ');\n  target.style.backgroundSize = `${imgW * zoomFactor}px ${imgH * zoomFactor}px`;\n  target.style.backgroundPosition = `-${sourceX * zoomFactor}px -${sourceY * zoomFactor}px`;\n  target.style.backgroundRepeat = 'no-repeat';\n  target.style.width = `${circleSize}px`;\n  target.style.height = `${circleSize}px`;\n  target.style.left = `${screenX - circleSize / 2}px`;\n  target.style.top = `${screenY - circleSize / 2}px`;\n  target.style.display = 'block';\n}\n\n// ---- Main Image ----\nmainImage.addEventListener('mousemove', (event) => {\n  if (rafPending) return;\n  rafPending = true;\n  requestAnimationFrame(() => {\n    const x = event.clientX - rect.left;\n    const y = event.clientY - rect.top;\n    drawZoomCircle({\n      target: circleImage,\n      imageSrc,\n      imgW: imageWidth,\n      imgH: imageHeight,\n      x,\n      y,\n      screenX: Math.round(rect.left + x),\n      screenY: Math.round(rect.top + y)\n    });\n    rafPending = false;\n  });\n});\n\nmainImage.addEventListener('mouseleave', () => {\n  circleImage.style.display = 'none';\n});\n\n// ---- Composed Images ----\ndocument.querySelectorAll('.composed-side').forEach((side) => {\n  const sideImage = side.querySelector('img');\n  const sideOverlay = side.querySelector('.composed-overlay');\n\n  side.addEventListener('mousemove', (event) => {\n    const sideRect = sideImage.getBoundingClientRect();\n    drawZoomCircle({\n      target: circleImage,\n      imageSrc: [sideOverlay.dataset.src, sideImage.src],\n      imgW: sideRect.width,\n      imgH: sideRect.height,\n      x: event.clientX - sideRect.left,\n      y: event.clientY - sideRect.top,\n      screenX: event.clientX,\n      screenY: event.clientY\n    });\n  });\n\n  side.addEventListener('mouseleave', () => {\n    circleImage.style.display = 'none';\n  });\n});\n\n// ---- Report Image ----\nreportImage.addEventListener('mousemove', (event) => {\n  const reportRect = reportImage.getBoundingClientRect();\n  const x = event.clientX - reportRect.left;\n  const y = event.clientY - reportRect.top;\n\n  lastX = x;\n  lastY = y;\n  lastClientX = event.clientX;\n  lastClientY = event.clientY;\n  isMouseOverReport = true;\n\n  if (!rafPending) {\n    rafPending = true;\n    requestAnimationFrame(() => {\n      drawZoomCircle({\n        target: reportCircleImage,\n        imageSrc: reportSrc,\n        imgW: reportWidth,\n        imgH: reportHeight,\n        x: lastX,\n        y: lastY,\n        screenX: lastClientX,\n        screenY: lastClientY\n      });\n      rafPending = false;\n    });\n  }\n});\n\nreportImage.addEventListener('mouseleave', () => {\n  isMouseOverReport = false;\n  reportCircleImage.style.display = 'none';\n});\n\n// ---- Scroll Zoom Tracking ----\ndocument.querySelector('.report-container').addEventListener('scroll', () => {\n  if (isMouseOverReport && lastX !== null && lastY !== null) {\n    const reportRect = reportImage.getBoundingClientRect();\n    const x = lastClientX - reportRect.left;\n    const y = lastClientY - reportRect.top;\n\n    if (!rafPending) {\n      rafPending = true;\n      requestAnimationFrame(() => {\n        drawZoomCircle({\n          target: reportCircleImage,\n          imageSrc: reportSrc,\n          imgW: reportWidth,\n          imgH: reportHeight,\n          x,\n          y,\n          screenX: lastClientX,\n          screenY: lastClientY\n        });\n        rafPending = false;\n      });\n    }\n  }\n});\n\n</script>\n    <script type=\"text/javascript\">\ndocument.getElementById(\"fullscreenBtn\").addEventListener(\"click\", function() {\n    var wrapper = document.querySelector(\".alignment-image-wrapper\");\n    var icon = document.getElementById(\"fullscreenBtn\");\n    \n    // Toggle fullscreen class on wrapper\n    wrapper.classList.toggle(\"fullscreen\");\n    \n    // Toggle icon to indicate fullscreen state\n    if (wrapper.classList.contains(\"fullscreen\")) {\n        icon.textContent = \"⛔\"; // Change to \"Exit Fullscreen\" icon (or any icon of your choice)\n    } else {\n        icon.textContent = \"⛶\"; // Original fullscreen icon\n    }\n});\n\n</script>\n</body>\n\n</html>\n";
 }
\ No newline at end of file
@@ -117,4 +117,31 @@ public final class AppSettings {
     public static String loadOperationColor(String op, String defaultColorName) {
         return props().getProperty(opColorKey(op), defaultColorName);
     }
+
+    /* =======================
+       Tuning (no UI, edit the properties file)
+       ======================= */
+
+    public static int loadInt(String key, int defaultValue) {
+        String v = props().getProperty(key);
+        try {
+            return v == null ? defaultValue : Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static boolean loadBoolean(String key, boolean defaultValue) {
+        String v = props().getProperty(key);
+        return v == null ? defaultValue : Boolean.parseBoolean(v.trim());
+    }
+
+    public static <E extends Enum<E>> E loadEnum(String key, E defaultValue) {
+        String v = props().getProperty(key);
+        try {
+            return v == null ? defaultValue : Enum.valueOf(defaultValue.getDeclaringClass(), v.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
 }
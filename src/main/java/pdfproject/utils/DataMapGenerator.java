@@ -1,6 +1,8 @@
 package pdfproject.utils;
 
+import pdfproject.constants.Operation;
 import pdfproject.models.MapModel;
+import pdfproject.models.WordBox;
 import pdfproject.reportutil.ReportHtml;
 import org.apache.commons.math3.util.Pair;
 
@@ -10,6 +12,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.List;
+import java.util.Locale;
 
 public class DataMapGenerator {
 
@@ -28,6 +31,7 @@ public class DataMapGenerator {
         for (MapModel model : models) {
             List<List<String>> validationImages = model.getContentImages();
             List<List<String>> alignmentImages = model.getAlignmentImages();
+            List<List<WordBox>> contentBoxes = model.getContentBoxes();
             List<List<Pair<String, String>>> sourceTexts = model.getSourceTexts();
             List<List<Pair<String, String>>> targetTexts = model.getTargetTexts();
 
@@ -51,6 +55,15 @@ public class DataMapGenerator {
             }
             jsContent.append("        ],\n");
 
+            // Word boxes of composed content pages
+            jsContent.append("        contentBoxes: [\n");
+            if (contentBoxes != null) {
+                for (List<WordBox> boxes : contentBoxes) {
+                    jsContent.append("            ").append(jsBoxArray(boxes)).append(",\n");
+                }
+            }
+            jsContent.append("        ],\n");
+
             // Alignment images
             jsContent.append("        alignmentImages: [\n");
             if (alignmentImages != null) {
@@ -127,6 +140,31 @@ public class DataMapGenerator {
         return sb.toString();
     }
 
+    // Convert word boxes to JS objects: [{side, x, y, width, height, operations: [...], color: "#rrggbb"}, ...]
+    private static String jsBoxArray(List<WordBox> boxes) {
+        if (boxes == null || boxes.isEmpty()) return "[]";
+
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < boxes.size(); i++) {
+            WordBox box = boxes.get(i);
+            sb.append(String.format(Locale.ROOT,
+                    "{side: %d, x: %.5f, y: %.5f, width: %.5f, height: %.5f, operations: [",
+                    box.side(), box.x(), box.y(), box.width(), box.height()
+            ));
+
+            int op = 0;
+            for (Operation operation : box.operations()) {
+                if (op++ > 0) sb.append(", ");
+                sb.append("\"").append(operation.name()).append("\"");
+            }
+            sb.append(String.format(Locale.ROOT, "], color: \"#%06x\"}", box.color().getRGB() & 0xFFFFFF));
+
+            if (i < boxes.size() - 1) sb.append(", ");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
     // Convert List<Pair<String,String>> to JS array of arrays: [["orig","corr"], ...]
     private static String jsPairsFromPairList(List<Pair<String, String>> pairs) {
         if (pairs == null || pairs.isEmpty()) return "[]";
@@ -0,0 +1,156 @@
+package pdfproject.utils;
+
+import pdfproject.constants.FileTypes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Decides whether the two inputs of a row are the same document without parsing them.
+ * Files are compared as byte streams, stopping at the first difference. Two PDFs of the
+ * same length also count as identical when they differ only inside the values of the
+ * creation and modification dates, the document ID, or the dates and IDs of uncompressed
+ * XMP metadata, which a no-op rebuild rewrites.
+ */
+public final class FileIdentityUtil {
+
+    private static final int CHUNK = 64 * 1024;
+
+    // Longest key below plus room for whitespace before the value opens
+    private static final int TAIL = 32;
+
+    /**
+     * Values that may differ, as the text just before the value, the byte opening
+     * it and the byte closing it.
+     */
+    private static final MaskedValue[] MASKED_VALUES = {
+            new MaskedValue("/CreationDate", '(', ')'),
+            new MaskedValue("/CreationDate", '<', '>'),
+            new MaskedValue("/ModDate", '(', ')'),
+            new MaskedValue("/ModDate", '<', '>'),
+            new MaskedValue("/ID", '[', ']'),
+            new MaskedValue("<xmp:CreateDate", '>', '<'),
+            new MaskedValue("<xmp:ModifyDate", '>', '<'),
+            new MaskedValue("<xmp:MetadataDate", '>', '<'),
+            new MaskedValue("<xmpMM:DocumentID", '>', '<'),
+            new MaskedValue("<xmpMM:InstanceID", '>', '<'),
+            new MaskedValue("xmp:CreateDate=", '"', '"'),
+            new MaskedValue("xmp:ModifyDate=", '"', '"'),
+            new MaskedValue("xmp:MetadataDate=", '"', '"'),
+            new MaskedValue("xmpMM:DocumentID=", '"', '"'),
+            new MaskedValue("xmpMM:InstanceID=", '"', '"'),
+    };
+
+    private FileIdentityUtil() {}
+
+    public enum Identity {
+        DIFFERENT,
+        IDENTICAL,
+        // Same PDF apart from dates and IDs
+        SAME_CONTENT
+    }
+
+    public static Identity compare(String path1, String path2) throws IOException {
+        Path file1 = Path.of(path1);
+        Path file2 = Path.of(path2);
+
+        if (Files.size(file1) != Files.size(file2)) {
+            return Identity.DIFFERENT;
+        }
+        if (Files.isSameFile(file1, file2) || Files.mismatch(file1, file2) == -1L) {
+            return Identity.IDENTICAL;
+        }
+        if (isPdf(path1) && isPdf(path2) && sameIgnoringMetadata(file1, file2)) {
+            return Identity.SAME_CONTENT;
+        }
+        return Identity.DIFFERENT;
+    }
+
+    /**
+     * Walks both files in lockstep. A difference is allowed only inside a masked value,
+     * and both files must close that value at the same offset.
+     */
+    private static boolean sameIgnoringMetadata(Path file1, Path file2) throws IOException {
+        try (InputStream in1 = Files.newInputStream(file1);
+             InputStream in2 = Files.newInputStream(file2)) {
+
+            byte[] buffer1 = new byte[CHUNK];
+            byte[] buffer2 = new byte[CHUNK];
+            byte[] tail = new byte[TAIL];
+            int tailLength = 0;
+            int closer = -1; // closing byte of the masked value being skipped, -1 outside
+
+            int read;
+            while ((read = in1.readNBytes(buffer1, 0, CHUNK)) > 0) {
+                if (in2.readNBytes(buffer2, 0, read) != read) {
+                    return false;
+                }
+
+                for (int i = 0; i < read; i++) {
+                    byte b1 = buffer1[i];
+                    byte b2 = buffer2[i];
+
+                    if (closer >= 0) {
+                        boolean closes1 = b1 == closer;
+                        if (closes1 != (b2 == closer)) {
+                            return false;
+                        }
+                        if (closes1) {
+                            closer = -1;
+                            tailLength = 0;
+                        }
+                        continue;
+                    }
+
+                    if (b1 != b2) {
+                        return false;
+                    }
+
+                    closer = maskedCloser(tail, tailLength, b1);
+                    if (tailLength == TAIL) {
+                        System.arraycopy(tail, 1, tail, 0, TAIL - 1);
+                        tailLength--;
+                    }
+                    tail[tailLength++] = b1;
+                }
+            }
+            return closer < 0;
+        }
+    }
+
+    /**
+     * Closing byte of the value that {@code opener} starts, if the text before it is one
+     * of the masked keys; -1 otherwise.
+     */
+    private static int maskedCloser(byte[] tail, int tailLength, byte opener) {
+        if (opener != '(' && opener != '<' && opener != '[' && opener != '>' && opener != '"') {
+            return -1;
+        }
+
+        int end = tailLength;
+        while (end > 0 && isWhitespace(tail[end - 1])) {
+            end--;
+        }
+        String before = new String(tail, 0, end, StandardCharsets.ISO_8859_1);
+
+        for (MaskedValue value : MASKED_VALUES) {
+            if (value.opener() == opener && before.endsWith(value.key())) {
+                return value.closer();
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0;
+    }
+
+    private static boolean isPdf(String path) {
+        return path.toLowerCase().endsWith(FileTypes.PDF_EXTENSION);
+    }
+
+    private record MaskedValue(String key, char opener, char closer) {}
+}
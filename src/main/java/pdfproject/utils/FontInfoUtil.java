@@ -1,10 +1,10 @@
 package pdfproject.utils;
 
-import org.apache.pdfbox.text.TextPosition;
 import pdfproject.constants.Operation;
 import pdfproject.constants.OperationColor;
 import pdfproject.models.DiffItem;
 import pdfproject.models.FontInfoPart;
+import pdfproject.models.GlyphStore;
 import pdfproject.models.WordInfo;
 
 import java.awt.*;
@@ -12,11 +12,63 @@ import java.util.*;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Builds the font annotation shown next to a changed word in the content diff image.
+ * The diff only records which operations apply. The annotation is built from them the
+ * first time the diff image asks for it, through {@link #getFontInfoParts}, and kept on the
+ * word with its plain text, so the measuring and drawing passes of the image build it once.
+ */
 public class FontInfoUtil {
 
+    /**
+     * Annotation of the word, built on first call from its operations:
+     * deleted and added words list their fonts, font-only changes list what changed.
+     */
+    public static List<FontInfoPart> getFontInfoParts(WordInfo wordInfo) {
+        List<FontInfoPart> parts = wordInfo.getFontInfoParts();
+        if (parts == null) {
+            if (wordInfo.getOperations().contains(Operation.DELETED)) {
+                setFontInfo(Operation.DELETED, wordInfo);
+            } else if (wordInfo.getOperations().contains(Operation.ADDED)) {
+                setFontInfo(Operation.ADDED, wordInfo);
+            } else if (wordInfo.getCounterpart() != null) {
+                setFontDiffInfo(wordInfo);
+            }
+            parts = wordInfo.getFontInfoParts();
+        }
+        return parts;
+    }
+
+    /**
+     * Adds FONT, SIZE and STYLE to a word whose counterpart differs in those, without
+     * building its annotation.
+     */
+    public static void markFontDiffOperations(WordInfo wordInfo) {
+        WordInfo other = wordInfo.getCounterpart();
+        if (other == null || other.getGlyphCount() != wordInfo.getGlyphCount()) {
+            return;
+        }
+
+        GlyphStore glyphs1 = other.getGlyphs();
+        GlyphStore glyphs2 = wordInfo.getGlyphs();
+        for (int i = 0; i < wordInfo.getGlyphCount(); i++) {
+            int g1 = other.glyph(i);
+            int g2 = wordInfo.glyph(i);
+            if (!Objects.equals(glyphs1.getFontName(g1), glyphs2.getFontName(g2))) {
+                wordInfo.addOperation(Operation.FONT);
+            }
+            if (glyphs1.getFontSize(g1) != glyphs2.getFontSize(g2)) {
+                wordInfo.addOperation(Operation.SIZE);
+            }
+            if (glyphs1.getFontStyle(g1) != glyphs2.getFontStyle(g2)) {
+                wordInfo.addOperation(Operation.STYLE);
+            }
+        }
+    }
+
     public static void setFontInfo(Operation operation, WordInfo wordInfo) {
-        List<TextPosition> positions = wordInfo.getTextPositions();
-        if (positions == null || positions.isEmpty()) {
+        GlyphStore glyphs = wordInfo.getGlyphs();
+        if (glyphs == null || wordInfo.getGlyphCount() == 0) {
             wordInfo.setFontInfoParts(Collections.singletonList(
                     new FontInfoPart("[" + operation.name() + ": empty]", Color.BLACK)));
             return;
@@ -35,20 +87,20 @@ public class FontInfoUtil {
         boolean isFirstGroup = true;
         boolean needChunk = false;
 
-        for (int i = 0; i < positions.size(); i++) {
-            TextPosition tp = positions.get(i);
+        for (int i = 0; i < wordInfo.getGlyphCount(); i++) {
+            int glyph = wordInfo.glyph(i);
             char ch = wordInfo.getWord().charAt(i);
 
-            String font = WordUtil.getCleanFontName(tp.getFont().getName());
-            int size = Math.round(tp.getFontSize());
-            String style = WordUtil.getFontStyle(tp);
+            String font = glyphs.getFontName(glyph);
+            int size = glyphs.getFontSize(glyph);
+            String style = glyphs.getFontStyle(glyph).toString();
 
             if (lastFont == null) {
                 charGroup.append(ch);
                 lastFont = font;
                 lastSize = size;
                 lastStyle = style;
-            } else if (font.equals(lastFont) && size == lastSize && style.equals(lastStyle)) {
+            } else if (Objects.equals(font, lastFont) && size == lastSize && style.equals(lastStyle)) {
                 charGroup.append(ch);
             } else {
                 needChunk = true;
@@ -90,10 +142,9 @@ public class FontInfoUtil {
 
 
     public static void setFontDiffInfo(WordInfo wordInfo) {
-        List<TextPosition> tps1 = wordInfo.getOtherTextPositions();
-        List<TextPosition> tps2 = wordInfo.getTextPositions();
+        WordInfo other = wordInfo.getCounterpart();
 
-        if (tps1 == null || tps2 == null || tps1.size() != tps2.size()) {
+        if (other == null || other.getGlyphCount() != wordInfo.getGlyphCount()) {
             wordInfo.setFontInfoParts(Collections.singletonList(
                     new FontInfoPart("[Invalid or mismatched positions]", Color.BLACK)));
             return;
@@ -107,31 +158,34 @@ public class FontInfoUtil {
         List<DiffItem> lastDiffs = null;
         boolean needChunk = false;
 
-        for (int i = 0; i < tps1.size(); i++) {
-            TextPosition tp1 = tps1.get(i);
-            TextPosition tp2 = tps2.get(i);
+        GlyphStore glyphs1 = other.getGlyphs();
+        GlyphStore glyphs2 = wordInfo.getGlyphs();
+
+        for (int i = 0; i < wordInfo.getGlyphCount(); i++) {
+            int g1 = other.glyph(i);
+            int g2 = wordInfo.glyph(i);
             char ch = wordInfo.getWord().charAt(i);
 
             List<DiffItem> currentDiffs = new ArrayList<>();
 
-            String font1 = WordUtil.getCleanFontName(tp1.getFont().getName());
-            String font2 = WordUtil.getCleanFontName(tp2.getFont().getName());
+            String font1 = glyphs1.getFontName(g1);
+            String font2 = glyphs2.getFontName(g2);
             if (!Objects.equals(font1, font2)) {
                 currentDiffs.add(new DiffItem(Operation.FONT, font1, font2));
                 wordInfo.addOperation(Operation.FONT);
                 usedOps.add(Operation.FONT);
             }
 
-            float size1 = Math.round(tp1.getFontSize());
-            float size2 = Math.round(tp2.getFontSize());
+            float size1 = glyphs1.getFontSize(g1);
+            float size2 = glyphs2.getFontSize(g2);
             if (size1 != size2) {
                 currentDiffs.add(new DiffItem(Operation.SIZE, String.valueOf(size1), String.valueOf(size2)));
                 wordInfo.addOperation(Operation.SIZE);
                 usedOps.add(Operation.SIZE);
             }
 
-            String style1 = WordUtil.getFontStyle(tp1);
-            String style2 = WordUtil.getFontStyle(tp2);
+            String style1 = glyphs1.getFontStyle(g1).toString();
+            String style2 = glyphs2.getFontStyle(g2).toString();
             if (!Objects.equals(style1, style2)) {
                 currentDiffs.add(new DiffItem(Operation.STYLE, style1, style2));
                 wordInfo.addOperation(Operation.STYLE);
@@ -212,9 +266,14 @@ public class FontInfoUtil {
 
 
     public static String getPlainInfo(WordInfo word) {
-        List<FontInfoPart> parts = word.getFontInfoParts();
-        if (parts == null) return "[Invalid or mismatched positions]";
-        return parts.stream().map(FontInfoPart::text).collect(Collectors.joining());
+        String info = word.getPlainInfo();
+        if (info == null) {
+            List<FontInfoPart> parts = getFontInfoParts(word);
+            if (parts == null) return "[Invalid or mismatched positions]";
+            info = parts.stream().map(FontInfoPart::text).collect(Collectors.joining());
+            word.setPlainInfo(info);
+        }
+        return info;
     }
 
 
@@ -0,0 +1,96 @@
+package pdfproject.utils;
+
+import pdfproject.Config;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Page-size images kept for reuse, keyed by size, type and palette, so that the renders,
+ * diffs and side-by-side images of one page are recycled for the next instead of being
+ * allocated as new humongous arrays every time. Holds at most {@link Config#imagePoolSize}
+ * idle images per key; 0 turns the pool off and every lease is a plain allocation.
+ * <p>
+ * A leased image is cleared to zero, exactly like a new one. Whoever leased an image
+ * releases it once nothing reads it any more, including queued writes; an image that is
+ * never released is simply left to the GC.
+ */
+public final class ImagePool {
+
+    private static final Map<Key, Deque<BufferedImage>> IDLE = new ConcurrentHashMap<>();
+
+    // Colour model of each standard image type, for keys of images leased without a palette
+    private static final Map<Integer, ColorModel> STANDARD_MODELS = new ConcurrentHashMap<>();
+
+    private ImagePool() {}
+
+    public static BufferedImage lease(int width, int height, int type) {
+        return lease(width, height, type, null);
+    }
+
+    /**
+     * @param palette palette of a TYPE_BYTE_BINARY or TYPE_BYTE_INDEXED image, or null for the default
+     */
+    public static BufferedImage lease(int width, int height, int type, IndexColorModel palette) {
+        if (Config.imagePoolSize > 0) {
+            ColorModel model = palette != null ? palette : standardModel(type);
+            Deque<BufferedImage> idle = IDLE.get(new Key(width, height, type, model));
+            BufferedImage image = idle != null ? idle.pollFirst() : null;
+            if (image != null) {
+                clear(image);
+                return image;
+            }
+        }
+        return palette != null
+                ? new BufferedImage(width, height, type, palette)
+                : new BufferedImage(width, height, type);
+    }
+
+    /**
+     * Hands an image back for reuse. Null, sub-images and images of unsupported layouts are ignored.
+     */
+    public static void release(BufferedImage image) {
+        if (image == null || Config.imagePoolSize <= 0 || !isPoolable(image)) {
+            return;
+        }
+
+        Key key = new Key(image.getWidth(), image.getHeight(), image.getType(), image.getColorModel());
+        Deque<BufferedImage> idle = IDLE.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+        // The size check is not atomic; going a little over the limit under contention is harmless
+        if (idle.size() < Config.imagePoolSize && !idle.contains(image)) {
+            idle.addFirst(image);
+        }
+    }
+
+    private static ColorModel standardModel(int type) {
+        return STANDARD_MODELS.computeIfAbsent(type, t -> new BufferedImage(1, 1, t).getColorModel());
+    }
+
+    private static boolean isPoolable(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return image.getType() != BufferedImage.TYPE_CUSTOM
+                && image.getRaster().getParent() == null
+                && buffer.getNumBanks() == 1
+                && (buffer instanceof DataBufferInt || buffer instanceof DataBufferByte);
+    }
+
+    private static void clear(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        if (buffer instanceof DataBufferInt ints) {
+            Arrays.fill(ints.getData(), 0);
+        } else {
+            Arrays.fill(((DataBufferByte) buffer).getData(), (byte) 0);
+        }
+    }
+
+    private record Key(int width, int height, int type, ColorModel model) {}
+}
@@ -1,10 +1,11 @@
 package pdfproject.utils;
 
-import org.apache.pdfbox.text.TextPosition;
 import pdfproject.Config;
 import pdfproject.constants.FileTypes;
 import pdfproject.constants.OperationColor;
 import pdfproject.constants.Texts;
+import pdfproject.models.GlyphStore;
+import pdfproject.models.WordBox;
 import pdfproject.models.WordInfo;
 
 import javax.imageio.ImageIO;
@@ -12,27 +13,30 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 public class ImageUtils {
-    public static BufferedImage generateDiffImage(BufferedImage img1, BufferedImage img2) {
-        int width = Math.min(img1.getWidth(), img2.getWidth());
-        int height = Math.min(img1.getHeight(), img2.getHeight());
-        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int rgb1 = img1.getRGB(x, y);
-                int rgb2 = img2.getRGB(x, y);
+    // Line width of the word boxes, in pixels of the page image
+    private static final float BOX_STROKE = 2.5f;
 
-                if (rgb1 != rgb2) {
-                    result.setRGB(x, y, Color.RED.getRGB()); // Mark difference in red
-                } else {
-                    result.setRGB(x, y, rgb1); // Keep original pixel
-                }
-            }
+    /**
+     * img1 with every pixel that differs from img2 painted red, cropped to the common size.
+     * See {@link PixelDiffUtil#compare} for the pixel count and changed regions.
+     */
+    public static BufferedImage generateDiffImage(BufferedImage img1, BufferedImage img2) {
+        BufferedImage diff = PixelDiffUtil.compare(img1, img2).image();
+        if (diff != null) {
+            return diff;
         }
 
+        // Identical pages: the diff is a plain copy of img1
+        int width = Math.min(img1.getWidth(), img2.getWidth());
+        int height = Math.min(img1.getHeight(), img2.getHeight());
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        result.setRGB(0, 0, width, height, img1.getRGB(0, 0, width, height, null, 0, width), 0, width);
         return result;
     }
 
@@ -40,47 +44,85 @@ public class ImageUtils {
         if (words.isEmpty() || image == null){
             return image;
         }
-        float scale = Config.renderDpi / 72f; // PDF default is 72 DPI
-        float padding = 3.0f; // Padding around the word
+        setBoundingBoxes(words);
 
-        BufferedImage output = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        BufferedImage output = ImagePool.lease(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
         Graphics2D g2d = output.createGraphics();
         g2d.drawImage(image, 0, 0, null);
-        g2d.setStroke(new BasicStroke(2.5f));
+        g2d.setStroke(new BasicStroke(BOX_STROKE));
+
+        for (WordInfo word : words) {
+            if (word.getGlyphCount() == 0) continue;
+
+            // Set the color for the bounding box
+            g2d.setColor(getOperationColor(word));
+
+            // Draw using the bounding box stored earlier
+            Rectangle boundingBox = word.getBoundingBox();
+            g2d.drawRect(boundingBox.x, boundingBox.y, boundingBox.width, boundingBox.height);
+        }
+
+        g2d.dispose();
+        return output;
+    }
+
+    /**
+     * Works out the box around each word at {@link Config#renderDpi} and stores it on the word.
+     * Deleted words are marked as belonging to the first document.
+     */
+    public static void setBoundingBoxes(List<WordInfo> words) {
+        float scale = Config.renderDpi / 72f; // PDF default is 72 DPI
+        float padding = 3.0f; // Padding around the word
 
         for (WordInfo word : words) {
-            if (word.getTextPositions().isEmpty()) continue;
+            if (word.getGlyphCount() == 0) continue;
 
-            // Get the first and last text positions
-            TextPosition first = word.getTextPositions().get(0);
-            TextPosition last = word.getTextPositions().get(word.getTextPositions().size()-1);
+            // Get the first and last glyphs
+            GlyphStore glyphs = word.getGlyphs();
+            int first = word.glyph(0);
+            int last = word.glyph(word.getGlyphCount() - 1);
 
             // Calculate position and size with padding
-            float x = first.getX() * scale - padding; // Apply padding on left
-            float y = first.getY() * scale - padding; // Apply padding on top
-            float width = (last.getX() + last.getWidth()) * scale - x; // Apply padding on both sides
-            float height = first.getHeight() * scale; // Apply padding on top and bottom
-
-            // Set the color based on the operation
-            Color boxColor = getOperationColor(word);
-            if (OperationColor.DELETED.equals(boxColor)) {
-                word.setBelongsToFirst(true);
-            }
+            float x = glyphs.getX(first) * scale - padding; // Apply padding on left
+            float y = glyphs.getY(first) * scale - padding; // Apply padding on top
+            float width = (glyphs.getX(last) + glyphs.getWidth(last)) * scale - x; // Apply padding on both sides
+            float height = glyphs.getHeight(first) * scale; // Apply padding on top and bottom
 
             // check if boxColor is same as Deleted color then set wordInfo.setBelongsToFirst(true)
-
-            // Set the color for the bounding box
-            g2d.setColor(boxColor);
-            // here do wordInfo.setBoundingBox(rect) then use this rect to draw
+            if (OperationColor.DELETED.equals(getOperationColor(word))) {
+                word.setBelongsToFirst(true);
+            }
 
             Rectangle boundingBox = new Rectangle(Math.round(x), Math.round(y - height), Math.round(width + (padding)), Math.round(height + (2 * padding)));
             word.setBoundingBox(boundingBox);
-            // Draw using the bounding box stored earlier
-            g2d.drawRect(boundingBox.x, boundingBox.y, boundingBox.width, boundingBox.height);
         }
+    }
 
-        g2d.dispose();
-        return output;
+    /**
+     * The boxes {@link #drawBoundingBoxes} would draw, relative to the size of the page image,
+     * for the report to draw over the saved image. Empty when there is no image.
+     *
+     * @param side 1 for the first document, 2 for the second
+     */
+    public static List<WordBox> wordBoxes(int side, BufferedImage image, List<WordInfo> words) {
+        if (words.isEmpty() || image == null) {
+            return List.of();
+        }
+        setBoundingBoxes(words);
+
+        double width = image.getWidth();
+        double height = image.getHeight();
+        List<WordBox> boxes = new ArrayList<>(words.size());
+        for (WordInfo word : words) {
+            if (word.getGlyphCount() == 0) continue;
+
+            Rectangle box = word.getBoundingBox();
+            boxes.add(new WordBox(
+                    side, box.x / width, box.y / height, box.width / width, box.height / height,
+                    EnumSet.copyOf(word.getOperations()), getOperationColor(word)
+            ));
+        }
+        return boxes;
     }
 
     public static BufferedImage createDummyImage(int width, int height, Color textColor, String infoText) {
@@ -124,9 +166,38 @@ public class ImageUtils {
     }
 
 
-    public static String getDummyReportImage(String outputImagePath) throws IOException {
+    // Synchronized: concurrent pages of a run share this one placeholder file
+    public static synchronized String getDummyReportImage(String outputImagePath) throws IOException {
+        return getPlaceholderImage(outputImagePath, Texts.NO_DIFF_IMAGE_NAME, Color.GREEN.darker(), Texts.NO_DIFF_FOUND);
+    }
+
+    /**
+     * Shared image shown for pages whose comparison was skipped because both documents
+     * draw them identically.
+     */
+    public static synchronized String getIdenticalPageImage(String outputImagePath) throws IOException {
+        return getPlaceholderImage(outputImagePath, Texts.IDENTICAL_PAGE_IMAGE_NAME, Color.GREEN.darker(), Texts.IDENTICAL_PAGE);
+    }
+
+    /**
+     * Shared image shown as the only page of a row whose two input files are the same document.
+     */
+    public static synchronized String getIdenticalDocumentsImage(String outputImagePath) throws IOException {
+        return getPlaceholderImage(outputImagePath, Texts.IDENTICAL_DOCUMENTS_IMAGE_NAME, Color.GREEN.darker(),
+                Texts.IDENTICAL_DOCUMENTS);
+    }
+
+    /**
+     * Shared image standing in for the missing side of a page when the report composes the content view.
+     */
+    public static synchronized String getPageNotFoundImage(String outputImagePath) throws IOException {
+        return getPlaceholderImage(outputImagePath, Texts.PAGE_NOT_FOUND_IMAGE_NAME, Color.RED, Texts.PAGE_NOT_FOUND);
+    }
+
+    private static String getPlaceholderImage(String outputImagePath, String name, Color textColor, String infoText)
+            throws IOException {
         String dirPath = String.format("%s", outputImagePath);
-        String fileName = Texts.NO_DIFF_IMAGE_NAME + FileTypes.IMAGE_EXTENSION;
+        String fileName = name + FileTypes.IMAGE_EXTENSION;
         File outputFile = new File(dirPath, fileName);
 
         // Create the output directory if it doesn't exist
@@ -141,7 +212,7 @@ public class ImageUtils {
         }
 
         // A4 dimensions in points (72 DPI): 595 x 842
-        BufferedImage dummyImage = createDummyImage(595, 842, Color.GREEN.darker(), Texts.NO_DIFF_FOUND);
+        BufferedImage dummyImage = createDummyImage(595, 842, textColor, infoText);
 
         // Save the image
         ImageIO.write(dummyImage, FileTypes.IMAGE_TYPE, outputFile);
@@ -0,0 +1,23 @@
+package pdfproject.utils;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+
+public final class PageHashUtil {
+
+    private PageHashUtil() {}
+
+    /**
+     * Feeds the decoded content streams of the page to the digest, concatenated in drawing
+     * order. Compression and object numbering do not change what is fed, so two saves of
+     * the same page hash alike.
+     */
+    public static void updateContent(MessageDigest digest, PDPage page) throws IOException {
+        try (InputStream in = page.getContents()) {
+            HashUtil.update(digest, in);
+        }
+    }
+}
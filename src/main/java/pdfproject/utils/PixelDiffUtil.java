@@ -0,0 +1,513 @@
+package pdfproject.utils;
+
+import pdfproject.models.PixelDiff;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Pixel comparison behind {@link ImageUtils#generateDiffImage}.
+ * <p>
+ * Rendered pages are {@code TYPE_INT_RGB}/{@code TYPE_INT_ARGB}, so their pixels are compared
+ * straight on the backing int arrays, one band of rows per fork-join task.
+ * {@link java.util.Arrays#mismatch} skips equal runs with vectorized compares.
+ * A first pass only looks for tiles holding a difference and stops scanning a tile at its
+ * first one; identical pages end there without allocating a result image.
+ * <p>
+ * {@code TYPE_BYTE_GRAY} and 1-bit {@code TYPE_BYTE_BINARY} pages are compared the same way on
+ * their byte arrays. Their diff is a palette image: the grey levels of the page plus red,
+ * or black, white and red, which encodes to a far smaller PNG than 24-bit colour.
+ * Any other image type goes through the old getRGB/setRGB loop, which
+ * produces the same image as the int path.
+ */
+public final class PixelDiffUtil {
+
+    private static final int DIFF_RGB = Color.RED.getRGB();
+
+    // Raw TYPE_INT_RGB pixels keep the top byte clear
+    private static final int RGB_MASK = 0x00FFFFFF;
+
+    // Edge of a tile; also the rows per task and the granularity of the reported regions
+    private static final int TILE_SIZE = 64;
+
+    // Diff palette of grey pages: 255 grey levels, then red
+    private static final int GRAY_RED_INDEX = 255;
+    private static final IndexColorModel GRAY_DIFF_PALETTE = grayDiffPalette();
+    private static final byte[] GRAY_TO_INDEX = grayToIndex();
+
+    // Diff palette of black and white pages: black, white, red
+    private static final int BINARY_RED_INDEX = 2;
+    private static final IndexColorModel BINARY_DIFF_PALETTE = new IndexColorModel(2, 3,
+            new byte[]{0, (byte) 255, (byte) 255},
+            new byte[]{0, (byte) 255, 0},
+            new byte[]{0, (byte) 255, 0});
+
+    private PixelDiffUtil() {}
+
+    /**
+     * Compares two pages. The result image is null when the pages are pixel-identical;
+     * otherwise it is leased from {@link ImagePool}.
+     */
+    public static PixelDiff compare(BufferedImage img1, BufferedImage img2) {
+        int width = Math.min(img1.getWidth(), img2.getWidth());
+        int height = Math.min(img1.getHeight(), img2.getHeight());
+        int tileColumns = (width + TILE_SIZE - 1) / TILE_SIZE;
+
+        Band[] bands = new Band[(height + TILE_SIZE - 1) / TILE_SIZE];
+        for (int b = 0; b < bands.length; b++) {
+            bands[b] = new Band(b * TILE_SIZE, Math.min(height, (b + 1) * TILE_SIZE), tileColumns);
+        }
+
+        BufferedImage result;
+        BytePixels bytes = bytePixels(img1, img2, width);
+        if (bytes != null) {
+            ForkJoinPool.commonPool().invoke(new BandTask(bands, 0, bands.length,
+                    band -> findDirtyTiles(bytes, band)));
+            if (!anyDirty(bands)) {
+                return new PixelDiff(null, 0, List.of());
+            }
+
+            boolean gray = bytes.bitsPerPixel() == 8;
+            result = gray
+                    ? ImagePool.lease(width, height, BufferedImage.TYPE_BYTE_INDEXED, GRAY_DIFF_PALETTE)
+                    : ImagePool.lease(width, height, BufferedImage.TYPE_BYTE_BINARY, BINARY_DIFF_PALETTE);
+            byte[] out = bytes(result);
+            int outStride = byteStride(result);
+            ForkJoinPool.commonPool().invoke(new BandTask(bands, 0, bands.length, gray
+                    ? band -> paintGrayBand(bytes, out, outStride, band)
+                    : band -> paintBinaryBand(bytes, out, outStride, band)));
+        } else if (isPacked(img1) && isPacked(img2) && img1.getType() == img2.getType()) {
+            // getRGB ignores the unused top byte of TYPE_INT_RGB, so the compare must too
+            int mask = img1.getType() == BufferedImage.TYPE_INT_RGB ? RGB_MASK : 0xFFFFFFFF;
+            Pixels pixels = new Pixels(ints(img1), stride(img1), ints(img2), stride(img2), width, mask);
+
+            ForkJoinPool.commonPool().invoke(new BandTask(bands, 0, bands.length,
+                    band -> findDirtyTiles(pixels, band)));
+
+            if (!anyDirty(bands)) {
+                return new PixelDiff(null, 0, List.of());
+            }
+
+            result = ImagePool.lease(width, height, BufferedImage.TYPE_INT_RGB);
+            int[] out = ints(result);
+            ForkJoinPool.commonPool().invoke(new BandTask(bands, 0, bands.length,
+                    band -> paintBand(pixels, out, band)));
+        } else {
+            result = ImagePool.lease(width, height, BufferedImage.TYPE_INT_RGB);
+            for (Band band : bands) {
+                compareScalar(img1, img2, result, width, band);
+            }
+        }
+
+        long changed = 0;
+        for (Band band : bands) {
+            changed += band.changed;
+        }
+        return new PixelDiff(changed > 0 ? result : null, changed, mergeRegions(bands));
+    }
+
+    /**
+     * Flags every tile of the band holding at least one differing pixel.
+     * A tile stops being scanned at its first difference.
+     */
+    private static void findDirtyTiles(Pixels p, Band band) {
+        for (int y = band.fromY; y < band.toY; y++) {
+            int row1 = y * p.stride1;
+            int row2 = y * p.stride2;
+            for (int t = 0; t < band.dirtyTiles.length; t++) {
+                if (band.dirtyTiles[t]) {
+                    continue;
+                }
+                int fromX = t * TILE_SIZE;
+                int toX = Math.min(p.width, fromX + TILE_SIZE);
+                if (nextDifference(p, row1, row2, fromX, toX) < toX) {
+                    band.dirtyTiles[t] = true;
+                    band.dirty = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies img1 into the band of the result and paints the differing pixels of its
+     * dirty tiles red. Clean tiles are copied without being compared again.
+     */
+    private static void paintBand(Pixels p, int[] out, Band band) {
+        for (int y = band.fromY; y < band.toY; y++) {
+            int row1 = y * p.stride1;
+            int row2 = y * p.stride2;
+            int rowOut = y * p.width;
+
+            System.arraycopy(p.data1, row1, out, rowOut, p.width);
+            if (p.mask != RGB_MASK) {
+                for (int x = rowOut; x < rowOut + p.width; x++) {
+                    out[x] &= RGB_MASK; // drop the alpha of ARGB sources, as setRGB would
+                }
+            }
+
+            if (!band.dirty) {
+                continue;
+            }
+            for (int t = 0; t < band.dirtyTiles.length; t++) {
+                if (!band.dirtyTiles[t]) {
+                    continue;
+                }
+                int toX = Math.min(p.width, (t + 1) * TILE_SIZE);
+                int x = nextDifference(p, row1, row2, t * TILE_SIZE, toX);
+                while (x < toX) {
+                    out[rowOut + x] = DIFF_RGB & RGB_MASK;
+                    band.mark(x, y);
+                    x = nextDifference(p, row1, row2, x + 1, toX);
+                }
+            }
+        }
+    }
+
+    /**
+     * First x in [fromX, toX) where the rows differ under the mask, or toX.
+     */
+    private static int nextDifference(Pixels p, int row1, int row2, int fromX, int toX) {
+        int x = fromX;
+        while (x < toX) {
+            int skip = Arrays.mismatch(
+                    p.data1, row1 + x, row1 + toX,
+                    p.data2, row2 + x, row2 + toX);
+            if (skip < 0) {
+                return toX;
+            }
+            x += skip;
+            if (((p.data1[row1 + x] ^ p.data2[row2 + x]) & p.mask) != 0) {
+                return x;
+            }
+            x++;
+        }
+        return toX;
+    }
+
+    /**
+     * Byte variant of {@link #findDirtyTiles(Pixels, Band)}. A tile starts on a byte boundary
+     * at any depth, since TILE_SIZE is a multiple of 8.
+     */
+    private static void findDirtyTiles(BytePixels p, Band band) {
+        for (int y = band.fromY; y < band.toY; y++) {
+            int row1 = y * p.stride1;
+            int row2 = y * p.stride2;
+            for (int t = 0; t < band.dirtyTiles.length; t++) {
+                if (band.dirtyTiles[t]) {
+                    continue;
+                }
+                int fromX = t * TILE_SIZE;
+                int toX = Math.min(p.width, fromX + TILE_SIZE);
+                int fromByte = fromX * p.bitsPerPixel / 8;
+                int toByte = (toX * p.bitsPerPixel + 7) / 8;
+                if (Arrays.mismatch(p.data1, row1 + fromByte, row1 + toByte,
+                        p.data2, row2 + fromByte, row2 + toByte) >= 0) {
+                    band.dirtyTiles[t] = true;
+                    band.dirty = true;
+                }
+            }
+        }
+    }
+
+    private static void paintGrayBand(BytePixels p, byte[] out, int outStride, Band band) {
+        for (int y = band.fromY; y < band.toY; y++) {
+            int row1 = y * p.stride1;
+            int row2 = y * p.stride2;
+            int rowOut = y * outStride;
+
+            for (int x = 0; x < p.width; x++) {
+                out[rowOut + x] = GRAY_TO_INDEX[p.data1[row1 + x] & 0xFF];
+            }
+
+            if (!band.dirty) {
+                continue;
+            }
+            for (int t = 0; t < band.dirtyTiles.length; t++) {
+                if (!band.dirtyTiles[t]) {
+                    continue;
+                }
+                int toX = Math.min(p.width, (t + 1) * TILE_SIZE);
+                int x = nextByteDifference(p, row1, row2, t * TILE_SIZE, toX);
+                while (x < toX) {
+                    out[rowOut + x] = (byte) GRAY_RED_INDEX;
+                    band.mark(x, y);
+                    x = nextByteDifference(p, row1, row2, x + 1, toX);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies 1-bit img1 into the 2-bit result, whose first two palette entries are the same
+     * black and white, then paints the differing pixels of dirty tiles red. Padding bits past
+     * the page width are never reported.
+     */
+    private static void paintBinaryBand(BytePixels p, byte[] out, int outStride, Band band) {
+        for (int y = band.fromY; y < band.toY; y++) {
+            int row1 = y * p.stride1;
+            int row2 = y * p.stride2;
+            int rowOut = y * outStride;
+
+            for (int x = 0; x < p.width; x++) {
+                int bit = (p.data1[row1 + (x >> 3)] >> (7 - (x & 7))) & 1;
+                out[rowOut + (x >> 2)] |= (byte) (bit << (6 - 2 * (x & 3)));
+            }
+
+            if (!band.dirty) {
+                continue;
+            }
+            for (int t = 0; t < band.dirtyTiles.length; t++) {
+                if (!band.dirtyTiles[t]) {
+                    continue;
+                }
+                int fromX = t * TILE_SIZE;
+                int toX = Math.min(p.width, fromX + TILE_SIZE);
+                int toByte = (toX + 7) >> 3;
+                int b = fromX >> 3;
+                while (b < toByte) {
+                    int skip = Arrays.mismatch(p.data1, row1 + b, row1 + toByte, p.data2, row2 + b, row2 + toByte);
+                    if (skip < 0) {
+                        break;
+                    }
+                    b += skip;
+                    int changedBits = (p.data1[row1 + b] ^ p.data2[row2 + b]) & 0xFF;
+                    for (int k = 0; k < 8; k++) {
+                        int x = (b << 3) + k;
+                        if (x < toX && (changedBits & (0x80 >> k)) != 0) {
+                            int shift = 6 - 2 * (x & 3);
+                            int i = rowOut + (x >> 2);
+                            out[i] = (byte) ((out[i] & ~(3 << shift)) | (BINARY_RED_INDEX << shift));
+                            band.mark(x, y);
+                        }
+                    }
+                    b++;
+                }
+            }
+        }
+    }
+
+    /**
+     * First x in [fromX, toX) where the 8-bit rows differ, or toX.
+     */
+    private static int nextByteDifference(BytePixels p, int row1, int row2, int fromX, int toX) {
+        int skip = Arrays.mismatch(p.data1, row1 + fromX, row1 + toX, p.data2, row2 + fromX, row2 + toX);
+        return skip < 0 ? toX : fromX + skip;
+    }
+
+    private static void compareScalar(BufferedImage img1, BufferedImage img2, BufferedImage result,
+                                      int width, Band band) {
+        for (int y = band.fromY; y < band.toY; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb1 = img1.getRGB(x, y);
+                int rgb2 = img2.getRGB(x, y);
+
+                if (rgb1 != rgb2) {
+                    result.setRGB(x, y, DIFF_RGB);
+                    band.mark(x, y);
+                } else {
+                    result.setRGB(x, y, rgb1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Joins the boxes of vertically touching bands whose x ranges overlap.
+     */
+    private static List<Rectangle> mergeRegions(Band[] bands) {
+        List<Rectangle> regions = new ArrayList<>();
+        Rectangle open = null;
+        for (Band band : bands) {
+            if (band.changed == 0) {
+                open = null;
+                continue;
+            }
+            Rectangle box = new Rectangle(band.minX, band.minY,
+                    band.maxX - band.minX + 1, band.maxY - band.minY + 1);
+            if (open != null && box.y == band.fromY
+                    && box.x <= open.x + open.width && open.x <= box.x + box.width) {
+                open.add(box);
+            } else {
+                open = box;
+                regions.add(open);
+            }
+            if (band.maxY < band.toY - 1) {
+                open = null; // the change ends inside this band, so the next one is a new region
+            }
+        }
+        return regions;
+    }
+
+    private static boolean anyDirty(Band[] bands) {
+        for (Band band : bands) {
+            if (band.dirty) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Byte access to a pair of 8-bit grey or 1-bit black-and-white pages, or null if the pair
+     * is anything else. Binary pages must use the default black/white palette.
+     */
+    private static BytePixels bytePixels(BufferedImage img1, BufferedImage img2, int width) {
+        if (img1.getType() != img2.getType() || !isByteBacked(img1) || !isByteBacked(img2)) {
+            return null;
+        }
+
+        if (img1.getType() == BufferedImage.TYPE_BYTE_GRAY
+                && img1.getSampleModel() instanceof ComponentSampleModel sm1
+                && img2.getSampleModel() instanceof ComponentSampleModel sm2
+                && sm1.getPixelStride() == 1 && sm2.getPixelStride() == 1
+                && sm1.getBandOffsets()[0] == 0 && sm2.getBandOffsets()[0] == 0) {
+            return new BytePixels(bytes(img1), sm1.getScanlineStride(), bytes(img2), sm2.getScanlineStride(), width, 8);
+        }
+
+        if (img1.getType() == BufferedImage.TYPE_BYTE_BINARY
+                && img1.getSampleModel() instanceof MultiPixelPackedSampleModel sm1
+                && img2.getSampleModel() instanceof MultiPixelPackedSampleModel sm2
+                && sm1.getPixelBitStride() == 1 && sm2.getPixelBitStride() == 1
+                && sm1.getDataBitOffset() == 0 && sm2.getDataBitOffset() == 0
+                && isBlackWhite(img1) && isBlackWhite(img2)) {
+            return new BytePixels(bytes(img1), sm1.getScanlineStride(), bytes(img2), sm2.getScanlineStride(), width, 1);
+        }
+        return null;
+    }
+
+    private static boolean isByteBacked(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        return raster.getDataBuffer() instanceof DataBufferByte buffer
+                && buffer.getNumBanks() == 1 && buffer.getOffset() == 0
+                && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0;
+    }
+
+    private static boolean isBlackWhite(BufferedImage image) {
+        return image.getColorModel() instanceof IndexColorModel palette
+                && palette.getMapSize() == 2
+                && (palette.getRGB(0) & RGB_MASK) == 0x000000
+                && (palette.getRGB(1) & RGB_MASK) == 0xFFFFFF;
+    }
+
+    private static byte[] bytes(BufferedImage image) {
+        return ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+    }
+
+    private static int byteStride(BufferedImage image) {
+        return image.getSampleModel() instanceof MultiPixelPackedSampleModel packed
+                ? packed.getScanlineStride()
+                : ((ComponentSampleModel) image.getSampleModel()).getScanlineStride();
+    }
+
+    private static IndexColorModel grayDiffPalette() {
+        byte[] r = new byte[256];
+        byte[] g = new byte[256];
+        byte[] b = new byte[256];
+        for (int i = 0; i < GRAY_RED_INDEX; i++) {
+            byte level = (byte) ((i * 255 + 127) / 254);
+            r[i] = level;
+            g[i] = level;
+            b[i] = level;
+        }
+        r[GRAY_RED_INDEX] = (byte) 255;
+        return new IndexColorModel(8, 256, r, g, b);
+    }
+
+    private static byte[] grayToIndex() {
+        byte[] index = new byte[256];
+        for (int level = 0; level < 256; level++) {
+            index[level] = (byte) ((level * 254 + 127) / 255);
+        }
+        return index;
+    }
+
+    private static boolean isPacked(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        return (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_INT_ARGB)
+                && raster.getDataBuffer() instanceof DataBufferInt buffer
+                && buffer.getNumBanks() == 1 && buffer.getOffset() == 0
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+                && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0;
+    }
+
+    private static int[] ints(BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    private static int stride(BufferedImage image) {
+        return ((SinglePixelPackedSampleModel) image.getRaster().getSampleModel()).getScanlineStride();
+    }
+
+    private record Pixels(int[] data1, int stride1, int[] data2, int stride2, int width, int mask) {}
+
+    private record BytePixels(byte[] data1, int stride1, byte[] data2, int stride2, int width, int bitsPerPixel) {}
+
+    /**
+     * Rows [fromY, toY) and the changes found in them. Written by one task only.
+     */
+    private static final class Band {
+        final int fromY;
+        final int toY;
+        final boolean[] dirtyTiles;
+        boolean dirty;
+        long changed;
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = -1;
+        int maxY = -1;
+
+        Band(int fromY, int toY, int tileColumns) {
+            this.fromY = fromY;
+            this.toY = toY;
+            this.dirtyTiles = new boolean[tileColumns];
+        }
+
+        void mark(int x, int y) {
+            changed++;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+    }
+
+    private static final class BandTask extends RecursiveAction {
+        private final Band[] bands;
+        private final int from;
+        private final int to;
+        private final Consumer<Band> work;
+
+        BandTask(Band[] bands, int from, int to, Consumer<Band> work) {
+            this.bands = bands;
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    work.accept(bands[from]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BandTask(bands, from, mid, work), new BandTask(bands, mid, to, work));
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package pdfproject.utils;
 
-import org.apache.pdfbox.text.TextPosition;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import pdfproject.constants.FontStyle;
+import pdfproject.models.FontTable;
+import pdfproject.models.GlyphStore;
 import pdfproject.models.WordInfo;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for handling WordInfo and font-related comparisons and cleaning operations.
@@ -17,6 +21,13 @@ public class WordUtil {
             "collection", "historic", "emoji", "specialty", "symbol", "script", "sans", "serif"
     };
 
+    // Compiled once; applied one after another in the order above, like the modifiers list
+    private static final Pattern[] MODIFIER_PATTERNS = Arrays.stream(FONT_MODIFIERS_TO_REMOVE)
+            .map(mod -> Pattern.compile(mod, Pattern.CASE_INSENSITIVE | Pattern.LITERAL))
+            .toArray(Pattern[]::new);
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-zA-Z0-9]");
+
     /**
      * Compares two WordInfo objects to see if they have identical font attributes for all characters.
      *
@@ -25,27 +36,30 @@ public class WordUtil {
      * @return true if font info matches character-by-character; false otherwise
      */
     public static boolean isWordInfoSame(WordInfo wordInfo1, WordInfo wordInfo2) {
-        List<TextPosition> positions1 = wordInfo1.getTextPositions();
-        List<TextPosition> positions2 = wordInfo2.getTextPositions();
-
-        if (positions1.size() != positions2.size()) return false;
+        if (wordInfo1.getGlyphCount() != wordInfo2.getGlyphCount()) return false;
 
-        for (int i = 0; i < positions1.size(); i++) {
-            if (!isFontInfoSame(positions1.get(i), positions2.get(i))) return false;
+        GlyphStore glyphs1 = wordInfo1.getGlyphs();
+        GlyphStore glyphs2 = wordInfo2.getGlyphs();
+        for (int i = 0; i < wordInfo1.getGlyphCount(); i++) {
+            if (!isFontInfoSame(glyphs1, wordInfo1.glyph(i), glyphs2, wordInfo2.glyph(i))) return false;
         }
 
         return true;
     }
 
     /**
-     * Compares the font name, size (rounded), and style of two TextPositions.
+     * Compares the font name, size (rounded), and style of two glyphs.
+     * Glyphs of one row share a font table, so name and style compare as one face id.
      */
-    private static boolean isFontInfoSame(TextPosition tp1, TextPosition tp2) {
-        if (tp1 == null || tp2 == null || tp1.getFont() == null || tp2.getFont() == null) return false;
+    private static boolean isFontInfoSame(GlyphStore glyphs1, int g1, GlyphStore glyphs2, int g2) {
+        if (glyphs1.getFontId(g1) == FontTable.NO_FONT || glyphs2.getFontId(g2) == FontTable.NO_FONT) return false;
+        if (glyphs1.getFontSize(g1) != glyphs2.getFontSize(g2)) return false;
 
-        return Objects.equals(getCleanFontName(tp1.getFont().getName()), getCleanFontName(tp2.getFont().getName()))
-                && Math.round(tp1.getFontSize()) == Math.round(tp2.getFontSize())
-                && Objects.equals(getFontStyle(tp1), getFontStyle(tp2));
+        if (glyphs1.getFonts() == glyphs2.getFonts()) {
+            return glyphs1.getFaceId(g1) == glyphs2.getFaceId(g2);
+        }
+        return Objects.equals(glyphs1.getFontName(g1), glyphs2.getFontName(g2))
+                && glyphs1.getFontStyle(g1) == glyphs2.getFontStyle(g2);
     }
 
     /**
@@ -69,12 +83,12 @@ public class WordUtil {
         }
 
         // Remove known modifier terms
-        for (String mod : FONT_MODIFIERS_TO_REMOVE) {
-            fontRawName = fontRawName.replaceAll("(?i)" + mod, "");
+        for (Pattern mod : MODIFIER_PATTERNS) {
+            fontRawName = mod.matcher(fontRawName).replaceAll("");
         }
 
         // Keep only alphanumeric characters
-        fontRawName = fontRawName.replaceAll("[^a-zA-Z0-9]", "").trim();
+        fontRawName = NON_ALPHANUMERIC.matcher(fontRawName).replaceAll("").trim();
 
         return fontRawName.isEmpty() ? null : fontRawName;
     }
@@ -82,13 +96,13 @@ public class WordUtil {
     /**
      * Attempts to determine the font style (bold/italic) from the font name and descriptor.
      *
-     * @param tp TextPosition with font info
-     * @return Style string: "bold", "italic", "bold|italic", or "regular"
+     * @param font Font of a glyph
+     * @return Style shown as "bold", "italic", "bold|italic", or "regular"
      */
-    public static String getFontStyle(TextPosition tp) {
-        if (tp == null || tp.getFont() == null) return "regular";
+    public static FontStyle getFontStyle(PDFont font) {
+        if (font == null) return FontStyle.REGULAR;
 
-        String fontName = tp.getFont().getName().toLowerCase();
+        String fontName = font.getName().toLowerCase();
         String cleaned = removeSubsetPrefix(fontName);
 
         boolean nameBold = cleaned.contains("bold");
@@ -99,20 +113,14 @@ public class WordUtil {
 
         // Use descriptor if available
         try {
-            var descriptor = tp.getFont().getFontDescriptor();
+            var descriptor = font.getFontDescriptor();
             if (descriptor != null) {
                 descBold = descriptor.getFontWeight() >= 700;
                 angleItalic = descriptor.getItalicAngle() <= -10;
             }
         } catch (Exception ignored) {}
 
-        boolean isBold = nameBold || descBold;
-        boolean isItalic = nameItalic || angleItalic;
-
-        if (isBold && isItalic) return "bold|italic";
-        if (isBold) return "bold";
-        if (isItalic) return "italic";
-        return "regular";
+        return FontStyle.of(nameBold || descBold, nameItalic || angleItalic);
     }
 
     /**
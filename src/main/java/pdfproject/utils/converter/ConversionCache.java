@@ -0,0 +1,151 @@
+package pdfproject.utils.converter;
+
+import pdfproject.Config;
+import pdfproject.constants.AppPaths;
+import pdfproject.constants.FileTypes;
+import pdfproject.utils.HashUtil;
+
+import java.io.File;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent store of converted PDFs under the app home, keyed by the SHA-256 of the
+ * Word file plus the converter that produced the PDF. The least recently used PDFs are
+ * deleted by {@link #trim} once the store outgrows {@link Config#conversionCacheMb}; a value
+ * of 0 turns the cache off. Rows of one batch asking for the same document share one conversion.
+ * <p>
+ * Nothing is deleted while a run is going, since a PDF handed out to one row may not be
+ * opened yet; a run may take the store over its limit until the next one starts.
+ */
+public final class ConversionCache {
+
+    private static final String CACHE_DIR = AppPaths.APP_HOME + File.separator + "conversion-cache";
+
+    private static final ConcurrentHashMap<String, CompletableFuture<File>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger HITS = new AtomicInteger();
+    private static final AtomicInteger MISSES = new AtomicInteger();
+    // Rows that waited for a conversion another row was running
+    private static final AtomicInteger SHARED = new AtomicInteger();
+
+    private ConversionCache() {}
+
+    /**
+     * Returns the cached PDF of the Word file, converting it on a miss.
+     */
+    public static File convert(File wordFile, WordPdfConverter converter) throws Exception {
+        if (Config.conversionCacheMb <= 0) {
+            return converter.convert(wordFile);
+        }
+
+        String key = HashUtil.sha256(wordFile) + "-" + converter.getClass().getSimpleName();
+
+        CompletableFuture<File> mine = new CompletableFuture<>();
+        CompletableFuture<File> running = IN_FLIGHT.putIfAbsent(key, mine);
+        if (running != null) {
+            SHARED.incrementAndGet();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        try {
+            File pdf = lookupOrConvert(key, wordFile, converter);
+            mine.complete(pdf);
+            return pdf;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            IN_FLIGHT.remove(key);
+        }
+    }
+
+    private static File lookupOrConvert(String key, File wordFile, WordPdfConverter converter) throws Exception {
+        File cached = new File(CACHE_DIR, key + FileTypes.PDF_EXTENSION);
+        if (cached.isFile()) {
+            HITS.incrementAndGet();
+            cached.setLastModified(System.currentTimeMillis()); // LRU order is kept in the file times
+            return cached;
+        }
+
+        MISSES.incrementAndGet();
+        File converted = converter.convert(wordFile);
+
+        File dir = new File(CACHE_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            // Still usable for this run, just not remembered
+            return converted;
+        }
+
+        try {
+            Files.move(converted.toPath(), cached.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Temp dir on another volume
+            Files.copy(converted.toPath(), cached.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(converted.toPath());
+        }
+        cached.setLastModified(System.currentTimeMillis());
+        return cached;
+    }
+
+    /**
+     * Deletes the least recently used PDFs until the store fits its size limit again.
+     * Call between runs only, when no row holds a PDF from the store.
+     */
+    public static synchronized void trim() {
+        if (Config.conversionCacheMb <= 0) {
+            return;
+        }
+        File[] files = new File(CACHE_DIR).listFiles((d, name) -> name.endsWith(FileTypes.PDF_EXTENSION));
+        if (files == null) {
+            return;
+        }
+
+        long limit = Config.conversionCacheMb * 1024L * 1024L;
+        long total = Arrays.stream(files).mapToLong(File::length).sum();
+        if (total <= limit) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= limit) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    /**
+     * Clears the hit and miss counters at the start of a run.
+     */
+    public static void resetStats() {
+        HITS.set(0);
+        MISSES.set(0);
+        SHARED.set(0);
+    }
+
+    public static void printStats() {
+        if (HITS.get() + MISSES.get() + SHARED.get() == 0) {
+            return;
+        }
+        System.out.printf(
+                "📦 Conversion cache: %d hit(s), %d miss(es), %d shared conversion(s).%n",
+                HITS.get(), MISSES.get(), SHARED.get()
+        );
+    }
+}
@@ -1,64 +1,142 @@
 package pdfproject.utils.converter;
 
+import pdfproject.Config;
 import pdfproject.constants.AppPaths;
+import pdfproject.constants.FileTypes;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class LibreOfficeWordPdfConverter implements WordPdfConverter {
 
-    private static final int TIMEOUT_SECONDS = 60;
+    static final int TIMEOUT_SECONDS = 60;
+
+    // Probing for soffice takes seconds, so it is done once per process
+    private static volatile String soffice;
 
     @Override
     public File convert(File wordFile) {
+        if (Config.officeWorkers > 0) {
+            return LibreOfficeWorkerPool.convert(wordFile);
+        }
 
-        String soffice = resolveSofficeExecutable();
-
-        File outDir = new File(AppPaths.TEMP_WORD_PDF);
-        outDir.mkdirs();
+        String soffice = sofficeExecutable();
 
         try {
-            ProcessBuilder pb = new ProcessBuilder(
-                    soffice,
-                    "--headless",
-                    "--convert-to", "pdf",
-                    wordFile.getAbsolutePath(),
-                    "--outdir", outDir.getAbsolutePath()
+            return convertIsolated(List.of(soffice, "--headless"), wordFile, TIMEOUT_SECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException(
+                    "LibreOffice Word → PDF conversion failed", e
             );
+        }
+    }
 
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-
-            if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
-                process.destroyForcibly();
-                throw new RuntimeException("LibreOffice conversion timed out");
-            }
+    /**
+     * Converts into an output directory of its own, so rows converting Word files of the
+     * same name at the same time cannot overwrite each other's PDF. The PDF is moved out
+     * under a unique name and the directory is deleted.
+     */
+    static File convertIsolated(List<String> launcher, File wordFile, int timeoutSeconds) throws Exception {
+        File tempRoot = new File(AppPaths.TEMP_WORD_PDF);
+        tempRoot.mkdirs();
 
-            String pdfName = wordFile.getName()
-                    .replaceAll("\\.(docx|doc)$", ".pdf");
+        File outDir = Files.createTempDirectory(tempRoot.toPath(), "convert-").toFile();
+        try {
+            File converted = convertWith(launcher, wordFile, outDir, timeoutSeconds);
+            File result = File.createTempFile("converted_", FileTypes.PDF_EXTENSION, tempRoot);
+            Files.move(converted.toPath(), result.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return result;
+        } finally {
+            deleteRecursively(outDir);
+        }
+    }
 
-            File outputFile = new File(outDir, pdfName);
+    /**
+     * Deletes a temp directory and everything in it, without following links. Best effort.
+     */
+    static void deleteRecursively(File file) {
+        if (!Files.isSymbolicLink(file.toPath())) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        file.delete();
+    }
 
-            if (!outputFile.exists()) {
-                throw new RuntimeException(
-                        "LibreOffice did not produce a PDF file"
-                );
+    /**
+     * Runs one {@code --convert-to pdf} with the given launcher arguments.
+     *
+     * @return the PDF written into outDir
+     */
+    static File convertWith(List<String> launcher, File wordFile, File outDir, int timeoutSeconds) throws Exception {
+        List<String> command = new ArrayList<>(launcher);
+        command.addAll(List.of(
+                "--convert-to", "pdf",
+                wordFile.getAbsolutePath(),
+                "--outdir", outDir.getAbsolutePath()
+        ));
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        Process process = pb.start();
+
+        boolean finished = false;
+        try {
+            finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
+        } finally {
+            // Timed out, or interrupted by a stopped run: no soffice is left behind
+            if (!finished) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
             }
+        }
+        if (!finished) {
+            throw new RuntimeException("LibreOffice conversion timed out");
+        }
 
-            return outputFile;
+        String pdfName = wordFile.getName()
+                .replaceAll("\\.(docx|doc)$", ".pdf");
 
-        } catch (Exception e) {
+        File outputFile = new File(outDir, pdfName);
+
+        if (!outputFile.exists()) {
             throw new RuntimeException(
-                    "LibreOffice Word → PDF conversion failed", e
+                    "LibreOffice did not produce a PDF file"
             );
         }
+
+        return outputFile;
+    }
+
+    static String sofficeExecutable() {
+        String path = soffice;
+        if (path == null) {
+            synchronized (LibreOfficeWordPdfConverter.class) {
+                if (soffice == null) {
+                    soffice = resolveSofficeExecutable();
+                }
+                path = soffice;
+            }
+        }
+        return path;
     }
 
     /**
      * Resolves the LibreOffice 'soffice' executable in a cross-platform,
      * PATH-independent way.
      */
-    private String resolveSofficeExecutable() {
+    private static String resolveSofficeExecutable() {
         String os = System.getProperty("os.name").toLowerCase();
 
         // 🪟 Windows
@@ -0,0 +1,165 @@
+package pdfproject.utils.converter;
+
+import pdfproject.Config;
+import pdfproject.constants.AppPaths;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Config#officeWorkers} headless LibreOffice instances kept running for the whole
+ * process. Each worker owns a profile ({@code -env:UserInstallation}), so the instances
+ * do not lock each other out. A conversion is started with the profile of an idle worker;
+ * soffice then hands it to the running instance instead of booting a new office.
+ * <p>
+ * A worker whose instance died is restarted before its next job, and one that times out
+ * is killed and restarted. If a warm worker produces no PDF, the document is converted
+ * once more with a cold, private instance. An interrupted conversion (a stopped run) is
+ * neither retried nor held against its worker.
+ */
+final class LibreOfficeWorkerPool {
+
+    private static final String POOL_DIR = AppPaths.TEMP_WORD_PDF + File.separator + "office-workers";
+
+    // Time for a fresh instance to come up before the first job is handed to it
+    private static final long STARTUP_MILLIS = 3000;
+
+    private static volatile BlockingQueue<Worker> idle;
+
+    private LibreOfficeWorkerPool() {}
+
+    static File convert(File wordFile) {
+        Worker worker;
+        try {
+            worker = workers().take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a LibreOffice worker", e);
+        }
+
+        try {
+            return worker.convert(wordFile);
+        } catch (InterruptedException e) {
+            // Stopped run, not a broken instance: keep the worker and do not retry
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during LibreOffice conversion", e);
+        } catch (Exception e) {
+            worker.stop(); // a hung or broken instance is restarted on its next job
+            System.err.printf("⚠️ LibreOffice worker %d failed (%s), retrying cold.%n", worker.id, e.getMessage());
+            return convertCold(wordFile);
+        } finally {
+            idle.add(worker);
+        }
+    }
+
+    private static BlockingQueue<Worker> workers() {
+        BlockingQueue<Worker> queue = idle;
+        if (queue == null) {
+            synchronized (LibreOfficeWorkerPool.class) {
+                if (idle == null) {
+                    String soffice = LibreOfficeWordPdfConverter.sofficeExecutable();
+                    List<Worker> all = new ArrayList<>();
+                    for (int i = 0; i < Config.officeWorkers; i++) {
+                        all.add(new Worker(i + 1, soffice));
+                    }
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> all.forEach(Worker::stop), "office-shutdown"));
+                    idle = new LinkedBlockingQueue<>(all);
+                }
+                queue = idle;
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Converts with a one-off instance on a private profile, which is deleted afterwards.
+     */
+    private static File convertCold(File wordFile) {
+        File profile = null;
+        try {
+            profile = Files.createTempDirectory("lo-profile-").toFile();
+            return LibreOfficeWordPdfConverter.convertIsolated(
+                    List.of(LibreOfficeWordPdfConverter.sofficeExecutable(), "--headless",
+                            "-env:UserInstallation=" + profile.toURI()),
+                    wordFile, LibreOfficeWordPdfConverter.TIMEOUT_SECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException("LibreOffice Word → PDF conversion failed", e);
+        } finally {
+            if (profile != null) {
+                LibreOfficeWordPdfConverter.deleteRecursively(profile);
+            }
+        }
+    }
+
+    /**
+     * One long-lived instance. Only used by the thread that took it from the idle queue.
+     */
+    private static final class Worker {
+        private final int id;
+        private final String soffice;
+        private final String profileArg;
+        private final File outDir;
+        private Process process;
+
+        Worker(int id, String soffice) {
+            this.id = id;
+            this.soffice = soffice;
+            File root = new File(POOL_DIR, "worker_" + id);
+            this.profileArg = "-env:UserInstallation=" + new File(root, "profile").toURI();
+            this.outDir = new File(root, "out");
+        }
+
+        File convert(File wordFile) throws Exception {
+            ensureRunning();
+
+            File converted = LibreOfficeWordPdfConverter.convertWith(
+                    List.of(soffice, profileArg, "--headless"),
+                    wordFile, outDir, LibreOfficeWordPdfConverter.TIMEOUT_SECONDS);
+
+            // The out dir is reused by the next job, so the PDF moves to a name of its own
+            File result = File.createTempFile("converted_", ".pdf", new File(AppPaths.TEMP_WORD_PDF));
+            Files.move(converted.toPath(), result.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return result;
+        }
+
+        /**
+         * Health check: (re)starts the instance unless it is alive.
+         */
+        private void ensureRunning() throws Exception {
+            if (process != null && process.isAlive()) {
+                return;
+            }
+
+            outDir.mkdirs();
+            ProcessBuilder pb = new ProcessBuilder(
+                    soffice, profileArg,
+                    "--headless", "--invisible", "--nologo", "--norestore", "--nodefault"
+            );
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            process = pb.start();
+
+            // An interrupt here leaves the instance starting; the next job finds it alive
+            if (process.waitFor(STARTUP_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("LibreOffice worker exited on startup (code " + process.exitValue() + ")");
+            }
+        }
+
+        void stop() {
+            if (process != null) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+                process = null;
+            }
+        }
+    }
+}
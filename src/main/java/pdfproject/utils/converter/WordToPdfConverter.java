@@ -28,7 +28,7 @@ public class WordToPdfConverter {
         WordPdfConverter converter =
                 WordPdfConverterFactory.create();
 
-        return converter.convert(inputFile);
+        return ConversionCache.convert(inputFile, converter);
     }
 
 
@@ -1,12 +1,16 @@
 package pdfproject.validators;
 
+import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import pdfproject.Config;
 import pdfproject.constants.FileTypes;
+import pdfproject.core.PageWrites;
 import pdfproject.models.MapModel;
+import pdfproject.models.PixelDiff;
+import pdfproject.utils.ImagePool;
 import pdfproject.utils.ImageUtils;
+import pdfproject.utils.PixelDiffUtil;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.Arrays;
@@ -22,6 +26,7 @@ public class AlignmentValidator {
     private final PDFRenderer renderer1;
     private final PDFRenderer renderer2;
     private final MapModel resultMap;
+    private final PageWrites writes;
 
     /**
      * Constructs an alignment validator for a specific data row.
@@ -31,19 +36,23 @@ public class AlignmentValidator {
      * @param renderer1       PDF renderer for document 1.
      * @param renderer2       PDF renderer for document 2.
      * @param resultMap       Model to store output image paths.
+     * @param writes          Queue the page images are written through.
      */
     public AlignmentValidator(String outputImagePath, int rowIndex,
-                              PDFRenderer renderer1, PDFRenderer renderer2, MapModel resultMap) {
+                              PDFRenderer renderer1, PDFRenderer renderer2, MapModel resultMap, PageWrites writes) {
         this.outputImagePath = outputImagePath;
         this.rowIndex = rowIndex;
         this.renderer1 = renderer1;
         this.renderer2 = renderer2;
         this.resultMap = resultMap;
+        this.writes = writes;
     }
 
     /**
      * Validates alignment by rendering pages from both documents,
      * generating a diff image, and saving all three.
+     * Pixel-identical pages only save img1, which stands in for img2 and is returned
+     * in its place, and the "no difference" placeholder takes the place of the diff.
      *
      * @param p1        Page index in document 1 (1-based).
      * @param p2        Page index in document 2 (1-based).
@@ -54,22 +63,132 @@ public class AlignmentValidator {
     public List<BufferedImage> validateAlignment(int p1, int p2, int imagePage) throws Exception {
         BufferedImage img1 = null, img2 = null, diff = null;
 
-        if (p1 >= 0) img1 = renderer1.renderImageWithDPI(p1 - 1, Config.renderDpi);
-        if (p2 >= 0) img2 = renderer2.renderImageWithDPI(p2 - 1, Config.renderDpi);
+        if (p1 >= 0) img1 = render(renderer1, p1, Config.renderDpi);
+        if (p2 >= 0) img2 = render(renderer2, p2, Config.renderDpi);
 
+        boolean identical = false;
         if (img1 != null && img2 != null) {
-            diff = ImageUtils.generateDiffImage(img1, img2);
+            PixelDiff pixelDiff = PixelDiffUtil.compare(img1, img2);
+            if (pixelDiff.hasChanges()) {
+                diff = pixelDiff.image();
+            } else if (img1.getWidth() == img2.getWidth() && img1.getHeight() == img2.getHeight()) {
+                identical = true;
+            } else {
+                // Same pixels over the common area, but the page sizes differ
+                diff = ImageUtils.generateDiffImage(img1, img2);
+            }
+        }
+
+        if (identical) {
+            // img1 stands in for img2 from here on, as it does in the report
+            ImagePool.release(img2);
+            img1 = forDisplay(renderer1, p1, Config.renderDpi, img1);
+            img2 = img1;
+        } else {
+            if (img1 != null) img1 = forDisplay(renderer1, p1, Config.renderDpi, img1);
+            if (img2 != null) img2 = forDisplay(renderer2, p2, Config.renderDpi, img2);
         }
 
         // Save images to disk and record paths in result map
-        List<String> paths = saveImages(imagePage, img1, img2, diff);
+        List<String> paths = identical
+                ? saveIdenticalImages(imagePage, img1)
+                : saveImages(imagePage, img1, img2, diff);
         resultMap.addAlignmentRow(paths,imagePage-1);
 
         return Arrays.asList(img1, img2, diff);
     }
 
     /**
-     * Saves rendered images (img1, img2, diff) to disk under a consistent structure.
+     * Triage variant of {@link #validateAlignment}: when the text of the pages matches, both
+     * pages are first rendered at {@link Config#triageDpi}. If those renders are identical
+     * only the thumbnail is saved; otherwise, or when the text differs, the pages are
+     * rendered again at full resolution. A change too small to alter any thumbnail pixel
+     * goes unnoticed, which is the trade this mode makes.
+     *
+     * @param textDiffers true if the content check already found a text difference
+     * @return List of BufferedImages: [img1, img2, diff], thumbnails for a clean page.
+     */
+    public List<BufferedImage> validateAlignmentTriaged(int p1, int p2, int imagePage, boolean textDiffers)
+            throws Exception {
+        if (!textDiffers && p1 >= 0 && p2 >= 0) {
+            BufferedImage thumb1 = render(renderer1, p1, Config.triageDpi);
+            BufferedImage thumb2 = render(renderer2, p2, Config.triageDpi);
+
+            boolean identical = false;
+            if (thumb1.getWidth() == thumb2.getWidth() && thumb1.getHeight() == thumb2.getHeight()) {
+                PixelDiff thumbDiff = PixelDiffUtil.compare(thumb1, thumb2);
+                ImagePool.release(thumbDiff.image());
+                identical = !thumbDiff.hasChanges();
+            }
+
+            if (identical) {
+                ImagePool.release(thumb2); // only thumb1 is saved and shown
+                thumb1 = forDisplay(renderer1, p1, Config.triageDpi, thumb1);
+                thumb2 = thumb1;
+                resultMap.addAlignmentRow(saveIdenticalImages(imagePage, thumb1), imagePage - 1);
+                return Arrays.asList(thumb1, thumb2, null);
+            }
+
+            ImagePool.release(thumb1);
+            ImagePool.release(thumb2);
+        }
+
+        return validateAlignment(p1, p2, imagePage);
+    }
+
+    /**
+     * Renders a page in the {@link Config#compareImageType} used for comparing.
+     */
+    private BufferedImage render(PDFRenderer renderer, int page, float dpi) throws Exception {
+        return renderer.renderImageWithDPI(page - 1, dpi, Config.compareImageType);
+    }
+
+    /**
+     * The image the report shows for a compared render: the render itself, or a colour
+     * render of the same page when {@link Config#colorDisplay} is set.
+     */
+    private BufferedImage forDisplay(PDFRenderer renderer, int page, float dpi, BufferedImage compared)
+            throws Exception {
+        if (!Config.colorDisplay || Config.compareImageType == ImageType.RGB) {
+            return compared;
+        }
+        BufferedImage color = renderer.renderImageWithDPI(page - 1, dpi, ImageType.RGB);
+        ImagePool.release(compared);
+        return color;
+    }
+
+    /**
+     * File a page image of a row is saved to by this validator.
+     *
+     * @param name img1 or img2; img1 also stands for img2 when the pages are pixel-identical.
+     */
+    static File imageFile(String outputImagePath, int rowIndex, int pageNumber, String name) {
+        String dirPath = String.format("%s/item_%d/alignment/page_%d", outputImagePath, rowIndex + 1, pageNumber);
+        return new File(dirPath, name + FileTypes.IMAGE_EXTENSION);
+    }
+
+    /**
+     * Saves the render shared by both documents once.
+     *
+     * @return List of image paths: [img1Path, img1Path, placeholderPath]
+     * @throws Exception if the output directory cannot be created.
+     */
+    private List<String> saveIdenticalImages(int pageNumber, BufferedImage img1) throws Exception {
+        String dirPath = String.format("%s/item_%d/alignment/page_%d", outputImagePath, rowIndex + 1, pageNumber);
+        File dir = new File(dirPath);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new Exception("Failed to create output directory: " + dirPath);
+        }
+
+        File img1File = new File(dir, "img1" + FileTypes.IMAGE_EXTENSION);
+        writes.write(pageNumber, img1, img1File);
+        String path1 = img1File.getPath();
+
+        return Arrays.asList(path1, path1, ImageUtils.getDummyReportImage(outputImagePath));
+    }
+
+    /**
+     * Queues rendered images (img1, img2, diff) for writing under a consistent structure.
      * If diff is null, fallback to saving a placeholder image from img1 or img2.
      *
      * @param pageNumber Page number used in output folder path.
@@ -77,7 +196,7 @@ public class AlignmentValidator {
      * @param img2       Rendered image from document 2.
      * @param diff       Difference image (may be null).
      * @return List of saved image paths: [img1Path, img2Path, diffPath]
-     * @throws Exception if any image cannot be written to disk.
+     * @throws Exception if the output directory cannot be created.
      */
     private List<String> saveImages(int pageNumber, BufferedImage img1, BufferedImage img2, BufferedImage diff) throws Exception {
         String dirPath = String.format("%s/item_%d/alignment/page_%d", outputImagePath, rowIndex + 1, pageNumber);
@@ -90,19 +209,19 @@ public class AlignmentValidator {
 
         if (img1 != null) {
             File img1File = new File(dir, "img1" + FileTypes.IMAGE_EXTENSION);
-            ImageIO.write(img1, FileTypes.IMAGE_TYPE, img1File);
+            writes.write(pageNumber, img1, img1File);
             path1 = img1File.getPath();
         }
 
         if (img2 != null) {
             File img2File = new File(dir, "img2" + FileTypes.IMAGE_EXTENSION);
-            ImageIO.write(img2, FileTypes.IMAGE_TYPE, img2File);
+            writes.write(pageNumber, img2, img2File);
             path2 = img2File.getPath();
         }
 
         if (diff != null) {
             File diffFile = new File(dir, "diff" + FileTypes.IMAGE_EXTENSION);
-            ImageIO.write(diff, FileTypes.IMAGE_TYPE, diffFile);
+            writes.write(pageNumber, diff, diffFile);
             pathDiff = diffFile.getPath();
         } else {
             // Fallback: reuse available image as placeholder for all three
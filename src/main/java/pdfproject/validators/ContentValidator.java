@@ -1,23 +1,23 @@
 package pdfproject.validators;
 
 import org.apache.commons.math3.util.Pair;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.pdfbox.text.TextPosition;
 import pdfproject.Config;
 import pdfproject.constants.FileTypes;
 import pdfproject.constants.Operation;
 import pdfproject.constants.Texts;
+import pdfproject.core.PageTextIndex;
+import pdfproject.core.PageWrites;
 import pdfproject.core.StringDiff;
 import pdfproject.models.FontInfoPart;
 import pdfproject.models.InputData;
 import pdfproject.models.MapModel;
+import pdfproject.models.WordBox;
 import pdfproject.models.WordInfo;
 import pdfproject.utils.FontInfoUtil;
+import pdfproject.utils.ImagePool;
 import pdfproject.utils.ImageUtils;
 import pdfproject.utils.SentenceUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -31,31 +31,53 @@ public class ContentValidator {
     private final InputData data;
     private final String outputImagePath;
     private final int rowIndex;
-    private final PDDocument doc1;
-    private final PDDocument doc2;
+    private final PageTextIndex text1;
+    private final PageTextIndex text2;
     private final MapModel resultMap;
+    private final PageWrites writes;
 
-    public ContentValidator(InputData data, String outputImagePath, int rowIndex, PDDocument doc1, PDDocument doc2, MapModel resultMap) {
+    public ContentValidator(InputData data, String outputImagePath, int rowIndex, PageTextIndex text1, PageTextIndex text2,
+                            MapModel resultMap, PageWrites writes) {
         this.data = data;
         this.outputImagePath = outputImagePath;
         this.rowIndex = rowIndex;
-        this.doc1 = doc1;
-        this.doc2 = doc2;
+        this.text1 = text1;
+        this.text2 = text2;
         this.resultMap = resultMap;
+        this.writes = writes;
     }
 
     public void validateContent(int p1, int p2, int imagePage, List<BufferedImage> images) throws Exception {
+        validateContent(imagePage, images, compareText(p1, p2, imagePage));
+    }
+
+    /**
+     * Word diff of the two pages. Call once per page: it also records the Prodigy texts.
+     *
+     * @throws IOException if the text of either page could not be extracted
+     */
+    public List<WordInfo> compareText(int p1, int p2, int imagePage) throws IOException {
         // Extract words from both PDFs
-        List<WordInfo> words1 = extractWords(doc1, p1,true);
-        List<WordInfo> words2 = extractWords(doc2, p2, false);
+        List<WordInfo> words1 = extractWords(text1, p1, imagePage, true);
+        List<WordInfo> words2 = extractWords(text2, p2, imagePage, false);
 
         // Compare words
-        List<WordInfo> diff = StringDiff.compare(words1, words2);
+        return StringDiff.compare(words1, words2);
+    }
 
+    /**
+     * Builds and saves the content images of a page from a diff made by {@link #compareText}.
+     */
+    public void validateContent(int imagePage, List<BufferedImage> images, List<WordInfo> diff) throws Exception {
         // Base images from input list
         BufferedImage baseImg1 = images.get(0);
         BufferedImage baseImg2 = images.get(1);
 
+        if (Config.composeReport) {
+            composeContent(imagePage, baseImg1, baseImg2, diff);
+            return;
+        }
+
         BufferedImage combinedImage;
         String diffPath = ImageUtils.getDummyReportImage(outputImagePath);
 
@@ -66,14 +88,7 @@ public class ContentValidator {
             // Difference exists – split diff into two sets
             List<WordInfo> forImage1 = new ArrayList<>();
             List<WordInfo> forImage2 = new ArrayList<>();
-
-            for (WordInfo word : diff) {
-                if (word.getOperations().contains(Operation.DELETED)) {
-                    forImage1.add(word);
-                } else {
-                    forImage2.add(word);
-                }
-            }
+            splitBySide(diff, forImage1, forImage2);
 
             // Draw bounding boxes
             BufferedImage boxedImg1 = ImageUtils.drawBoundingBoxes(baseImg1, forImage1);
@@ -81,6 +96,10 @@ public class ContentValidator {
 
             combinedImage = combineImagesSideBySide(boxedImg1, boxedImg2);
 
+            // The boxed copies are only needed for the combined image
+            if (boxedImg1 != baseImg1) ImagePool.release(boxedImg1);
+            if (boxedImg2 != baseImg2) ImagePool.release(boxedImg2);
+
             // Generate and save diff image
             BufferedImage diffImage = generateDiffImage(diff, baseImg1, baseImg2);
             diffPath = saveDiffImage(imagePage, diffImage);
@@ -88,11 +107,63 @@ public class ContentValidator {
 
         // Save combined image
         String path = saveImage(imagePage, combinedImage);
+        writes.recycle(imagePage, List.of(combinedImage));
 
         // Prepare result
         resultMap.addContentRow(Arrays.asList(path, diffPath),imagePage-1);
     }
 
+    /**
+     * Compose mode of {@link #validateContent}: the report lays out the page images the
+     * alignment check already saved side by side and draws the word boxes over them,
+     * so no boxed or combined image is built or encoded.
+     * <p>
+     * The content row is [empty, diff, side 1, side 2]; the boxes are recorded next to it.
+     */
+    private void composeContent(int imagePage, BufferedImage baseImg1, BufferedImage baseImg2, List<WordInfo> diff)
+            throws Exception {
+        String diffPath = ImageUtils.getDummyReportImage(outputImagePath);
+        List<WordBox> boxes = new ArrayList<>();
+
+        if (!diff.isEmpty()) {
+            List<WordInfo> forImage1 = new ArrayList<>();
+            List<WordInfo> forImage2 = new ArrayList<>();
+            splitBySide(diff, forImage1, forImage2);
+
+            // Also sets the word boxes the diff image is cut from
+            boxes.addAll(ImageUtils.wordBoxes(1, baseImg1, forImage1));
+            boxes.addAll(ImageUtils.wordBoxes(2, baseImg2, forImage2));
+
+            BufferedImage diffImage = generateDiffImage(diff, baseImg1, baseImg2);
+            diffPath = saveDiffImage(imagePage, diffImage);
+        }
+
+        String side1 = sidePath(imagePage, "img1", baseImg1);
+        String side2 = sidePath(imagePage, baseImg2 == baseImg1 ? "img1" : "img2", baseImg2);
+
+        resultMap.addContentRow(Arrays.asList(null, diffPath, side1, side2), imagePage - 1);
+        resultMap.addContentBoxes(boxes, imagePage - 1);
+    }
+
+    // Deleted words are boxed on the first page, everything else on the second
+    private static void splitBySide(List<WordInfo> diff, List<WordInfo> forImage1, List<WordInfo> forImage2) {
+        for (WordInfo word : diff) {
+            if (word.getOperations().contains(Operation.DELETED)) {
+                forImage1.add(word);
+            } else {
+                forImage2.add(word);
+            }
+        }
+    }
+
+    // The page image saved by the alignment check, or the shared placeholder for a missing page
+    private String sidePath(int imagePage, String name, BufferedImage image) throws IOException {
+        if (image == null) {
+            return ImageUtils.getPageNotFoundImage(outputImagePath);
+        }
+        return AlignmentValidator.imageFile(outputImagePath, rowIndex, imagePage, name).getPath();
+    }
+
 
 
 
@@ -192,11 +263,11 @@ public class ContentValidator {
             g.drawImage(wordImg, x, y, null);
             x += box.width;
 
-            if (shouldWriteInfo && word.getFontInfoParts() != null) {
+            if (shouldWriteInfo && FontInfoUtil.getFontInfoParts(word) != null) {
                 int infoY = y + currentLineHeight + 20;
                 int xCursor = padding;
 
-                List<FontInfoPart> parts = word.getFontInfoParts();
+                List<FontInfoPart> parts = FontInfoUtil.getFontInfoParts(word);
                 int lastIndex = parts.size() - 1;
 
                 for (int i = 0; i <= lastIndex; i++) {
@@ -238,7 +309,7 @@ public class ContentValidator {
         if (!dir.exists()) dir.mkdirs();
 
         File diffFile = new File(dir, "diff" + FileTypes.IMAGE_EXTENSION);
-        ImageIO.write(diffImage, FileTypes.IMAGE_TYPE, diffFile);
+        writes.write(pageNumber, diffImage, diffFile);
 
         return diffFile.getPath();
     }
@@ -264,7 +335,7 @@ public class ContentValidator {
         int totalWidth = img1.getWidth() + img2.getWidth();
         int height = Math.max(img1.getHeight(), img2.getHeight());
 
-        BufferedImage combined = new BufferedImage(totalWidth, height, BufferedImage.TYPE_INT_RGB);
+        BufferedImage combined = ImagePool.lease(totalWidth, height, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2d = combined.createGraphics();
         g2d.drawImage(img1, 0, 0, null);  // Draw the first image at (0, 0)
         g2d.drawImage(img2, img1.getWidth(), 0, null);  // Draw the second image next to it
@@ -283,72 +354,14 @@ public class ContentValidator {
         if (!dir.exists()) dir.mkdirs();
 
         File combinedFile = new File(dir, "combined" + FileTypes.IMAGE_EXTENSION);
-        ImageIO.write(combinedImage, FileTypes.IMAGE_TYPE, combinedFile);
+        writes.write(pageNumber, combinedImage, combinedFile);
 
         return combinedFile.getPath();
     }
 
-    private List<WordInfo> extractWords(PDDocument document, int pageNum, boolean isSource) throws IOException {
-        List<WordInfo> wordInfoList = new ArrayList<>();
-        if (document == null || pageNum == -1) return wordInfoList;
-
-        PDFTextStripper stripper = new PDFTextStripper() {
-            @Override
-            protected void writeString(String ignored, List<TextPosition> textPositions) {
-                WordInfo prevWordInfo = null;
-                int line = 1;
-
-                StringBuilder currentWord = new StringBuilder();
-                List<TextPosition> currentPositions = new ArrayList<>();
-
-                for (TextPosition tp : textPositions) {
-//                    if (tp.getFontSize() < 2){
-//                        continue;
-//                    }
-                    String unicode = tp.getUnicode();
-
-                    // Break down combined Unicode characters
-                    for (char c : unicode.toCharArray()) {
-                        if (Character.isWhitespace(c)) {
-                            if (!currentWord.isEmpty()) {
-                                WordInfo wordInfo = new WordInfo(currentWord.toString(), new ArrayList<>(currentPositions));
-
-                                if (prevWordInfo != null && prevWordInfo.getPosition() < wordInfo.getPosition()) {
-                                    line++;
-                                }
-
-                                wordInfo.setLine(line);
-                                wordInfoList.add(wordInfo);
-                                prevWordInfo = wordInfo;
-
-                                currentWord.setLength(0);
-                                currentPositions.clear();
-                            }
-                        } else {
-                            currentWord.append(c);
-                            currentPositions.add(tp); // Same tp reused for each char — intentional
-                        }
-                    }
-                }
-
-                // Final word
-                if (!currentWord.isEmpty()) {
-                    WordInfo wordInfo = new WordInfo(currentWord.toString(), currentPositions);
-
-                    if (prevWordInfo != null && prevWordInfo.getPosition() < wordInfo.getPosition()) {
-                        line++;
-                    }
-
-                    wordInfo.setLine(line);
-                    wordInfoList.add(wordInfo);
-                }
-            }
-        };
-
-        stripper.setStartPage(pageNum);
-        stripper.setEndPage(pageNum);
-        stripper.setSortByPosition(data.isSingleColumn());
-        stripper.getText(document);
+    private List<WordInfo> extractWords(PageTextIndex text, int pageNum, int imagePage, boolean isSource)
+            throws IOException {
+        List<WordInfo> wordInfoList = text.words(pageNum);
 
         if (Config.isProdigyValidation) {
 
@@ -364,7 +377,7 @@ public class ContentValidator {
             String mimicProdigyResponse = SentenceUtils.jsonString();
 
             List<Pair<String, String>> pairList = SentenceUtils.extractPairs(mimicProdigyResponse);
-            resultMap.addListOfPairs(pairList, isSource);
+            resultMap.addListOfPairs(pairList, isSource, imagePage - 1);
         }
 
         return wordInfoList;
@@ -0,0 +1,236 @@
+package pdfproject.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pdfproject.Config;
+import pdfproject.constants.DiffAlgorithm;
+import pdfproject.constants.Operation;
+import pdfproject.models.FontTable;
+import pdfproject.models.WordInfo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs {@link StringDiff#compare} on words extracted from small generated pages and checks
+ * that every engine returns the same result: the same words in the same order, with the
+ * same operations and counterparts, and the same words marked EQUAL.
+ * <p>
+ * Words written as {@code *word} are set in bold, so an equal word can differ in font, and
+ * words written as {@code ^word} are set small and raised, like a superscript.
+ */
+class StringDiffResultTest {
+
+    private final DiffAlgorithm configured = Config.diffAlgorithm;
+    private final boolean configuredLineDiff = Config.lineDiff;
+
+    @AfterEach
+    void restoreSettings() {
+        Config.diffAlgorithm = configured;
+        Config.lineDiff = configuredLineDiff;
+    }
+
+    @Test
+    void editedWord() throws IOException {
+        assertSameWithEveryEngine(
+                new String[]{"the quick brown fox", "jumps over the lazy dog"},
+                new String[]{"the quick red fox", "jumps over the lazy dog"}
+        );
+    }
+
+    @Test
+    void replacedWords() throws IOException {
+        assertSameWithEveryEngine(
+                new String[]{"one two three four five six"},
+                new String[]{"one seven eight nine five six"}
+        );
+    }
+
+    @Test
+    void insertedAndDeletedWords() throws IOException {
+        assertSameWithEveryEngine(
+                new String[]{"alpha beta gamma delta", "epsilon zeta"},
+                new String[]{"alpha gamma delta eta", "theta epsilon zeta iota"}
+        );
+    }
+
+    @Test
+    void equalWordsInOtherFonts() throws IOException {
+        assertSameWithEveryEngine(
+                new String[]{"terms and conditions apply", "see page two"},
+                new String[]{"*terms and conditions *apply", "see page three"}
+        );
+    }
+
+    @Test
+    void emptyAndIdenticalPages() throws IOException {
+        assertSameWithEveryEngine(new String[]{}, new String[]{"only the second page has text"});
+        assertSameWithEveryEngine(new String[]{"only the first page has text"}, new String[]{});
+        assertSameWithEveryEngine(new String[]{"same text", "on both pages"}, new String[]{"same text", "on both pages"});
+    }
+
+    @Test
+    void lineDiffAgreesOnEditedLine() throws IOException {
+        assertLineDiffAgrees(
+                new String[]{"first line stays", "second line has a typo here", "third line stays"},
+                new String[]{"first line stays", "second line has no typo here", "third line stays"}
+        );
+    }
+
+    @Test
+    void lineDiffAgreesOnInsertedAndDeletedLines() throws IOException {
+        assertLineDiffAgrees(
+                new String[]{"alpha beta", "gamma delta epsilon", "zeta eta"},
+                new String[]{"alpha beta", "zeta eta", "theta iota kappa"}
+        );
+    }
+
+    @Test
+    void lineDiffAgreesOnMovedLine() throws IOException {
+        assertLineDiffAgrees(
+                new String[]{"short moved line", "one two three four", "five six seven eight", "nine ten eleven"},
+                new String[]{"one two three four", "five six seven eight", "nine ten eleven", "short moved line"}
+        );
+    }
+
+    @Test
+    void lineDiffAgreesOnLinesWithSuperscripts() throws IOException {
+        assertLineDiffAgrees(
+                new String[]{"energy is mc ^2 here", "area is r ^2 times pi"},
+                new String[]{"energy is mc ^2 there", "area is r ^2 times pi"}
+        );
+    }
+
+    @Test
+    void superscriptsStayOnTheirLine() throws IOException {
+        try (PDDocument document = page("note ^1 and *bold text", "next line")) {
+            List<WordInfo> words = PageTextIndex.build(document, List.of(1), true, new FontTable(), null).words(1);
+            List<Integer> lines = new ArrayList<>();
+            for (WordInfo word : words) {
+                lines.add(word.getLine());
+            }
+            assertEquals(List.of(1, 1, 1, 1, 1, 2, 2), lines);
+        }
+    }
+
+    /**
+     * With every engine, the two-level line diff must give the result of the plain word diff.
+     * The changed lines share no words with other lines; where they do, the word diff may
+     * pair words across lines, while the line diff keeps whole lines together.
+     */
+    private static void assertLineDiffAgrees(String[] lines1, String[] lines2) throws IOException {
+        try (PDDocument doc1 = page(lines1); PDDocument doc2 = page(lines2)) {
+            FontTable fonts = new FontTable();
+            PageTextIndex text1 = PageTextIndex.build(doc1, List.of(1), true, fonts, null);
+            PageTextIndex text2 = PageTextIndex.build(doc2, List.of(1), true, fonts, null);
+
+            for (DiffAlgorithm algorithm : DiffAlgorithm.values()) {
+                Config.diffAlgorithm = algorithm;
+                Config.lineDiff = false;
+                List<String> expected = describe(text1.words(1), text2.words(1));
+                Config.lineDiff = true;
+                assertEquals(expected, describe(text1.words(1), text2.words(1)), algorithm + " with lineDiff");
+            }
+        }
+    }
+
+    private static void assertSameWithEveryEngine(String[] lines1, String[] lines2) throws IOException {
+        try (PDDocument doc1 = page(lines1); PDDocument doc2 = page(lines2)) {
+            FontTable fonts = new FontTable();
+            PageTextIndex text1 = PageTextIndex.build(doc1, List.of(1), true, fonts, null);
+            PageTextIndex text2 = PageTextIndex.build(doc2, List.of(1), true, fonts, null);
+
+            Config.diffAlgorithm = DiffAlgorithm.LCS;
+            List<String> expected = describe(text1.words(1), text2.words(1));
+            for (DiffAlgorithm algorithm : DiffAlgorithm.values()) {
+                Config.diffAlgorithm = algorithm;
+                assertEquals(expected, describe(text1.words(1), text2.words(1)), algorithm + " differs from LCS");
+            }
+        }
+    }
+
+    /**
+     * Compares fresh word lists and lists the result entries, followed by the EQUAL words
+     * of the first page. Words are named by their side and index, so equal texts at
+     * different positions do not compare equal.
+     */
+    static List<String> describe(List<WordInfo> words1, List<WordInfo> words2) {
+        List<WordInfo> result = StringDiff.compare(words1, words2);
+
+        List<String> described = new ArrayList<>();
+        for (WordInfo word : result) {
+            String entry = word.getOperations() + " " + name(word, words1, words2) + " " + word.getWord();
+            if (word.getCounterpart() != null) {
+                entry += " <- " + name(word.getCounterpart(), words1, words2);
+            }
+            described.add(entry);
+        }
+        for (int i = 0; i < words1.size(); i++) {
+            if (words1.get(i).getOperations().contains(Operation.EQUAL)) {
+                described.add("EQUAL 1:" + i);
+            }
+        }
+        return described;
+    }
+
+    private static String name(WordInfo word, List<WordInfo> words1, List<WordInfo> words2) {
+        int index = indexOf(words1, word);
+        if (index >= 0) {
+            return "1:" + index;
+        }
+        index = indexOf(words2, word);
+        assertFalse(index < 0, "result holds a word of neither page");
+        return "2:" + index;
+    }
+
+    private static int indexOf(List<WordInfo> words, WordInfo word) {
+        for (int i = 0; i < words.size(); i++) {
+            if (words.get(i) == word) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * One page with each line set at 12 pt, 20 pt below the previous one.
+     */
+    static PDDocument page(String... lines) throws IOException {
+        PDDocument document = new PDDocument();
+        PDPage page = new PDPage();
+        document.addPage(page);
+
+        PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            for (int l = 0; l < lines.length; l++) {
+                content.beginText();
+                content.newLineAtOffset(72, 700 - 20 * l);
+                String[] words = lines[l].split(" ");
+                for (int w = 0; w < words.length; w++) {
+                    String word = words[w];
+                    if (w > 0) {
+                        content.setFont(regular, 12);
+                        content.showText(" ");
+                    }
+                    boolean raised = word.startsWith("^");
+                    content.setFont(word.startsWith("*") ? bold : regular, raised ? 7 : 12);
+                    content.setTextRise(raised ? 5 : 0);
+                    content.showText(word.startsWith("*") || raised ? word.substring(1) : word);
+                    content.setTextRise(0);
+                }
+                content.endText();
+            }
+        }
+        return document;
+    }
+}
@@ -0,0 +1,130 @@
+package pdfproject.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pdfproject.Config;
+import pdfproject.constants.DiffAlgorithm;
+import pdfproject.core.diff.EditSink;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the common prefix and suffix trimming of {@link StringDiff#diffTokens} in front of
+ * every engine: the script must still cover the given ranges in order and stay shortest.
+ */
+class StringDiffTest {
+
+    private final DiffAlgorithm configured = Config.diffAlgorithm;
+
+    @AfterEach
+    void restoreAlgorithm() {
+        Config.diffAlgorithm = configured;
+    }
+
+    @Test
+    void trimsPrefixAndSuffixAroundEdits() {
+        Random random = new Random(11);
+        for (DiffAlgorithm algorithm : DiffAlgorithm.values()) {
+            Config.diffAlgorithm = algorithm;
+            for (int run = 0; run < 100; run++) {
+                int[] prefix = words(random, random.nextInt(30));
+                int[] suffix = words(random, random.nextInt(30));
+                int[] tokens1 = concat(prefix, words(random, random.nextInt(20)), suffix);
+                int[] tokens2 = concat(prefix, words(random, random.nextInt(20)), suffix);
+                assertScript(tokens1, 0, tokens1.length, tokens2, 0, tokens2.length);
+            }
+        }
+    }
+
+    @Test
+    void diffsOnlyTheGivenRanges() {
+        Random random = new Random(5);
+        for (DiffAlgorithm algorithm : DiffAlgorithm.values()) {
+            Config.diffAlgorithm = algorithm;
+            for (int run = 0; run < 100; run++) {
+                int[] tokens1 = words(random, 40);
+                int[] tokens2 = words(random, 40);
+                int from1 = random.nextInt(20);
+                int from2 = random.nextInt(20);
+                assertScript(tokens1, from1, from1 + random.nextInt(21), tokens2, from2, from2 + random.nextInt(21));
+            }
+        }
+    }
+
+    @Test
+    void identicalAndEmptyRanges() {
+        int[] tokens = {3, 1, 4, 1, 5, 9, 2, 6};
+        for (DiffAlgorithm algorithm : DiffAlgorithm.values()) {
+            Config.diffAlgorithm = algorithm;
+            assertScript(tokens, 0, tokens.length, tokens.clone(), 0, tokens.length);
+            assertScript(tokens, 0, 0, tokens, 0, tokens.length);
+            assertScript(tokens, 2, 6, tokens, 3, 3);
+        }
+    }
+
+    private static void assertScript(int[] tokens1, int from1, int to1, int[] tokens2, int from2, int to2) {
+        int[] next = {from1, from2, 0};
+        String engine = Config.diffAlgorithm.toString();
+        StringDiff.diffTokens(tokens1, from1, to1, tokens2, from2, to2, new EditSink() {
+            @Override
+            public void equal(int index1, int index2) {
+                assertEquals(next[0]++, index1, engine + ": equal out of order");
+                assertEquals(next[1]++, index2, engine + ": equal out of order");
+                assertEquals(tokens1[index1], tokens2[index2], engine + ": equal pairs different words");
+            }
+
+            @Override
+            public void delete(int index1) {
+                assertEquals(next[0]++, index1, engine + ": delete out of order");
+                next[2]++;
+            }
+
+            @Override
+            public void insert(int index2) {
+                assertEquals(next[1]++, index2, engine + ": insert out of order");
+                next[2]++;
+            }
+        });
+
+        assertEquals(to1, next[0], engine + ": first range not covered");
+        assertEquals(to2, next[1], engine + ": second range not covered");
+        int lcs = lcsLength(tokens1, from1, to1, tokens2, from2, to2);
+        assertEquals((to1 - from1) + (to2 - from2) - 2 * lcs, next[2], engine + ": edit script is not the shortest");
+    }
+
+    private static int lcsLength(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo) {
+        int[][] table = new int[aTo - aFrom + 1][bTo - bFrom + 1];
+        for (int i = 1; i <= aTo - aFrom; i++) {
+            for (int j = 1; j <= bTo - bFrom; j++) {
+                table[i][j] = a[aFrom + i - 1] == b[bFrom + j - 1]
+                        ? table[i - 1][j - 1] + 1
+                        : Math.max(table[i - 1][j], table[i][j - 1]);
+            }
+        }
+        return table[aTo - aFrom][bTo - bFrom];
+    }
+
+    private static int[] words(Random random, int length) {
+        int[] words = new int[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = random.nextInt(6);
+        }
+        return words;
+    }
+
+    private static int[] concat(int[]... parts) {
+        int length = 0;
+        for (int[] part : parts) {
+            length += part.length;
+        }
+        int[] result = new int[length];
+        int at = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, result, at, part.length);
+            at += part.length;
+        }
+        return result;
+    }
+}
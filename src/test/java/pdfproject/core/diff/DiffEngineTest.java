@@ -0,0 +1,169 @@
+package pdfproject.core.diff;
+
+import org.junit.jupiter.api.Test;
+import pdfproject.constants.DiffAlgorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every engine on the same inputs and checks that each returns a valid edit script
+ * of the shortest length, so the engines can be swapped without changing the result size.
+ */
+class DiffEngineTest {
+
+    @Test
+    void emptyInputs() {
+        assertAllEngines(new int[0], new int[0]);
+        assertAllEngines(new int[0], sequence(50, 0));
+        assertAllEngines(sequence(50, 0), new int[0]);
+    }
+
+    @Test
+    void identicalInputs() {
+        int[] words = random(new Random(1), 500, 40);
+        assertAllEngines(words, words.clone());
+    }
+
+    @Test
+    void disjointInputs() {
+        assertAllEngines(sequence(300, 0), sequence(200, 1000));
+    }
+
+    @Test
+    void randomInputs() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            int alphabet = 2 + random.nextInt(10);
+            assertAllEngines(
+                    random(random, random.nextInt(80), alphabet),
+                    random(random, random.nextInt(80), alphabet)
+            );
+        }
+    }
+
+    @Test
+    void fewEditsInLongInput() {
+        Random random = new Random(7);
+        int[] words1 = random(random, 3000, 500);
+        int[] words2 = words1.clone();
+        for (int edit = 0; edit < 40; edit++) {
+            words2[random.nextInt(words2.length)] = 500 + edit;
+        }
+        assertAllEngines(words1, words2);
+    }
+
+    @Test
+    void editDistanceJustBelowMyersTraceCap() {
+        // D = 2000 keeps the trace just under MAX_TRACE_INTS, so Myers walks it back itself
+        assertAllEngines(sequence(1000, 0), sequence(1000, 5000));
+    }
+
+    @Test
+    void editDistanceAboveMyersTraceCap() {
+        // D = 2200 exceeds MAX_TRACE_INTS, so Myers hands the diff to the linear-space engine
+        assertAllEngines(sequence(1100, 0), sequence(1100, 5000));
+
+        Random random = new Random(3);
+        assertAllEngines(random(random, 1500, 4), random(random, 1500, 4));
+    }
+
+    @Test
+    void commonPrefixAndSuffixAroundEdits() {
+        int[] words1 = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        int[] words2 = {1, 2, 3, 40, 50, 6, 7, 8, 9};
+        assertAllEngines(words1, words2);
+        assertAllEngines(words1, Arrays.copyOf(words1, 4));
+        assertAllEngines(Arrays.copyOfRange(words1, 5, 9), words1);
+    }
+
+    private static void assertAllEngines(int[] words1, int[] words2) {
+        int expected = words1.length + words2.length - 2 * lcsLength(words1, words2);
+        for (DiffAlgorithm algorithm : DiffAlgorithm.values()) {
+            ScriptChecker checker = new ScriptChecker(words1, words2, algorithm);
+            DiffEngine.of(algorithm).diff(words1, words2, checker);
+            checker.assertComplete();
+            assertEquals(expected, checker.edits, algorithm + ": edit script is not the shortest");
+        }
+    }
+
+    private static int lcsLength(int[] a, int[] b) {
+        int[] previous = new int[b.length + 1];
+        int[] row = new int[b.length + 1];
+        for (int i = 1; i <= a.length; i++) {
+            for (int j = 1; j <= b.length; j++) {
+                row[j] = a[i - 1] == b[j - 1] ? previous[j - 1] + 1 : Math.max(previous[j], row[j - 1]);
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return previous[b.length];
+    }
+
+    private static int[] sequence(int length, int first) {
+        int[] words = new int[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = first + i;
+        }
+        return words;
+    }
+
+    private static int[] random(Random random, int length, int alphabet) {
+        int[] words = new int[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = random.nextInt(alphabet);
+        }
+        return words;
+    }
+
+    /**
+     * Checks that the script walks both sequences once, in order, and that equal moves
+     * pair equal words.
+     */
+    private static final class ScriptChecker implements EditSink {
+        private final int[] words1;
+        private final int[] words2;
+        private final DiffAlgorithm algorithm;
+        private int next1;
+        private int next2;
+        private int edits;
+
+        private ScriptChecker(int[] words1, int[] words2, DiffAlgorithm algorithm) {
+            this.words1 = words1;
+            this.words2 = words2;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public void equal(int index1, int index2) {
+            assertEquals(next1, index1, algorithm + ": equal out of order");
+            assertEquals(next2, index2, algorithm + ": equal out of order");
+            assertEquals(words1[index1], words2[index2], algorithm + ": equal pairs different words");
+            next1++;
+            next2++;
+        }
+
+        @Override
+        public void delete(int index1) {
+            assertEquals(next1, index1, algorithm + ": delete out of order");
+            next1++;
+            edits++;
+        }
+
+        @Override
+        public void insert(int index2) {
+            assertEquals(next2, index2, algorithm + ": insert out of order");
+            next2++;
+            edits++;
+        }
+
+        private void assertComplete() {
+            assertTrue(next1 == words1.length && next2 == words2.length,
+                    algorithm + ": script stops at " + next1 + "/" + next2);
+        }
+    }
+}